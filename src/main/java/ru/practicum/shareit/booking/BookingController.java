@@ -7,7 +7,6 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -16,14 +15,18 @@ import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
 import ru.practicum.shareit.booking.model.StateBooking;
 import ru.practicum.shareit.booking.service.BookingService;
-import ru.practicum.shareit.validation.ContextShareIt;
+import ru.practicum.shareit.pagination.PageCursor;
+import ru.practicum.shareit.user.sharer.SharerUserId;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 import java.util.List;
+import java.util.Set;
 
 @Validated
 @RestController
@@ -33,37 +36,56 @@ public class BookingController {
     private final BookingService bookingService;
 
     @PostMapping
-    public BookingDtoOut createBooking(@RequestHeader(ContextShareIt.HEADER_USER_ID) Long userId,
+    public BookingDtoOut createBooking(@SharerUserId Long userId,
                                        @RequestBody @Valid BookingDto bookingDto) {
         return bookingService.createBooking(userId, bookingDto, LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES));
     }
 
     @PatchMapping("/{bookingId}")
-    public BookingDtoOut approvedBooking(@RequestHeader(ContextShareIt.HEADER_USER_ID) Long userId,
+    public BookingDtoOut approvedBooking(@SharerUserId Long userId,
                                          @PathVariable Long bookingId,
                                           @RequestParam Boolean approved) {
         return bookingService.approvedBooking(userId, bookingId, approved);
     }
 
+    @PatchMapping("/approve")
+    public List<BookingDtoOut> approveBookings(@SharerUserId Long userId,
+                                               @RequestBody @NotEmpty Set<Long> bookingIds,
+                                               @RequestParam Boolean approved) {
+        return bookingService.approveBookings(userId, bookingIds, approved);
+    }
+
     @GetMapping("/{bookingId}")
-    public BookingDtoOut getBookingById(@RequestHeader(ContextShareIt.HEADER_USER_ID) Long userId,
+    public BookingDtoOut getBookingById(@SharerUserId Long userId,
                                          @PathVariable Long bookingId) {
         return bookingService.getBookingById(userId, bookingId);
     }
 
     @GetMapping
-    public List<BookingDtoOut> getBookingsByUserId(@RequestHeader(ContextShareIt.HEADER_USER_ID) Long userId,
+    public List<BookingDtoOut> getBookingsByUserId(@SharerUserId Long userId,
                                              @RequestParam(defaultValue = "ALL") StateBooking state,
                                           @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                        @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
-        return bookingService.getBookingsByBookerId(userId, state, from, size);
+                                        @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                   @RequestParam(name = "cursor", required = false) String cursor,
+                                                   HttpServletResponse response) {
+        final List<BookingDtoOut> bookings = cursor == null
+                ? bookingService.getBookingsByBookerId(userId, state, from, size)
+                : bookingService.getBookingsByBookerId(userId, state, PageCursor.decode(cursor, true), size);
+        PageCursor.writeNext(response, bookings, size, f -> PageCursor.of(f.getStart(), f.getId()));
+        return bookings;
     }
 
     @GetMapping("/owner")
-    public List<BookingDtoOut> getBookingsForItemsByUserId(@RequestHeader(ContextShareIt.HEADER_USER_ID) Long userId,
+    public List<BookingDtoOut> getBookingsForItemsByUserId(@SharerUserId Long userId,
                                                    @RequestParam(defaultValue = "ALL") StateBooking state,
                                           @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                        @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
-        return bookingService.getBookingsByOwnerId(userId, state, from, size);
+                                        @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                   @RequestParam(name = "cursor", required = false) String cursor,
+                                                   HttpServletResponse response) {
+        final List<BookingDtoOut> bookings = cursor == null
+                ? bookingService.getBookingsByOwnerId(userId, state, from, size)
+                : bookingService.getBookingsByOwnerId(userId, state, PageCursor.decode(cursor, true), size);
+        PageCursor.writeNext(response, bookings, size, f -> PageCursor.of(f.getStart(), f.getId()));
+        return bookings;
     }
 }
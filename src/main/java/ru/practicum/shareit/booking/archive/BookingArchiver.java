@@ -0,0 +1,91 @@
+package ru.practicum.shareit.booking.archive;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.StatusBooking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Moves bookings that ended more than the retention period ago from bookings to
+ * bookings_archive, so the hot table and its indexes only hold recent and upcoming bookings.
+ * Every chunk is copied and deleted in its own short transaction.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.booking.archive.enabled", havingValue = "true", matchIfMissing = true)
+public class BookingArchiver {
+    private final BookingRepository bookingRepository;
+
+    private final ItemAvailabilityIndex availabilityIndex;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int retentionDays;
+
+    private final int chunkSize;
+
+    private final int maxChunks;
+
+    public BookingArchiver(BookingRepository bookingRepository,
+                           ItemAvailabilityIndex availabilityIndex,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${shareit.booking.archive.retention-days:30}") int retentionDays,
+                           @Value("${shareit.booking.archive.chunk-size:500}") int chunkSize,
+                           @Value("${shareit.booking.archive.max-chunks:20}") int maxChunks) {
+        this.bookingRepository = bookingRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retentionDays = retentionDays;
+        this.chunkSize = chunkSize;
+        this.maxChunks = maxChunks;
+    }
+
+    @Scheduled(initialDelayString = "${shareit.booking.archive.delay:3600000}",
+               fixedDelayString = "${shareit.booking.archive.delay:3600000}")
+    public void archive() {
+        archive(LocalDateTime.now());
+    }
+
+    int archive(LocalDateTime current) {
+        final LocalDateTime threshold = current.minusDays(retentionDays);
+        int archived = 0;
+        for (int chunk = 0; chunk < maxChunks; chunk++) {
+            final Integer count = transactionTemplate.execute(status -> archiveChunk(threshold));
+            archived += count == null ? 0 : count;
+            if (count == null || count < chunkSize) {
+                break;
+            }
+        }
+        if (archived > 0) {
+            log.info("Перенесено в архив бронирований, завершившихся до {}: {}", threshold, archived);
+        }
+        return archived;
+    }
+
+    private int archiveChunk(LocalDateTime threshold) {
+        final List<Booking> bookings = bookingRepository.findEndedForUpdate(threshold, StatusBooking.WAITING,
+                                                                            PageRequest.ofSize(chunkSize));
+        if (bookings.isEmpty()) {
+            return 0;
+        }
+
+        final List<Long> ids = bookings.stream().map(Booking::getId).collect(Collectors.toList());
+        bookingRepository.copyToArchive(ids);
+        bookingRepository.deleteAllByIdInBatch(ids);
+        availabilityIndex.removeAll(bookings);
+
+        return bookings.size();
+    }
+}
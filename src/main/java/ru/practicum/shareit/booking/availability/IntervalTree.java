@@ -0,0 +1,152 @@
+package ru.practicum.shareit.booking.availability;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Booking periods of one item: a treap ordered by start and augmented with the maximum end
+ * of every subtree, so an overlap lookup walks a single root-to-leaf path.
+ */
+class IntervalTree {
+    private final Map<Long, Node> nodes = new HashMap<>();
+
+    private Node root;
+
+    synchronized void put(long bookingId, LocalDateTime start, LocalDateTime end) {
+        remove(bookingId);
+        final Node node = new Node(bookingId, start, end, ThreadLocalRandom.current().nextInt());
+        nodes.put(bookingId, node);
+        root = insert(root, node);
+    }
+
+    synchronized void remove(long bookingId) {
+        final Node node = nodes.remove(bookingId);
+        if (node != null) {
+            root = delete(root, node);
+        }
+    }
+
+    synchronized boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        Node current = root;
+        while (current != null) {
+            if (!current.start.isAfter(end) && !current.end.isBefore(start)) {
+                return true;
+            }
+            if (current.left != null && !current.left.maxEnd.isBefore(start)) {
+                current = current.left;
+            } else {
+                current = current.right;
+            }
+        }
+        return false;
+    }
+
+    synchronized int size() {
+        return nodes.size();
+    }
+
+    private static Node insert(Node subtree, Node node) {
+        if (subtree == null) {
+            return node;
+        }
+        if (compare(node, subtree) < 0) {
+            subtree.left = insert(subtree.left, node);
+            if (subtree.left.priority > subtree.priority) {
+                subtree = rotateRight(subtree);
+            }
+        } else {
+            subtree.right = insert(subtree.right, node);
+            if (subtree.right.priority > subtree.priority) {
+                subtree = rotateLeft(subtree);
+            }
+        }
+        subtree.update();
+        return subtree;
+    }
+
+    private static Node delete(Node subtree, Node node) {
+        if (subtree == null) {
+            return null;
+        }
+        if (subtree == node) {
+            return merge(subtree.left, subtree.right);
+        }
+        if (compare(node, subtree) < 0) {
+            subtree.left = delete(subtree.left, node);
+        } else {
+            subtree.right = delete(subtree.right, node);
+        }
+        subtree.update();
+        return subtree;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static int compare(Node first, Node second) {
+        final int byStart = first.start.compareTo(second.start);
+        return byStart != 0 ? byStart : Long.compare(first.bookingId, second.bookingId);
+    }
+
+    private static Node rotateRight(Node node) {
+        final Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        final Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private static final class Node {
+        private final long bookingId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final int priority;
+        private LocalDateTime maxEnd;
+        private Node left;
+        private Node right;
+
+        private Node(long bookingId, LocalDateTime start, LocalDateTime end, int priority) {
+            this.bookingId = bookingId;
+            this.start = start;
+            this.end = end;
+            this.priority = priority;
+            this.maxEnd = end;
+        }
+
+        private void update() {
+            maxEnd = end;
+            if (left != null && left.maxEnd.isAfter(maxEnd)) {
+                maxEnd = left.maxEnd;
+            }
+            if (right != null && right.maxEnd.isAfter(maxEnd)) {
+                maxEnd = right.maxEnd;
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.StatusBooking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.transaction.AfterCommit;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Component
+public class ItemAvailabilityIndex {
+    private final Map<Long, IntervalTree> itemIntervals = new ConcurrentHashMap<>();
+
+    private final BookingRepository bookingRepository;
+
+    private final boolean verifyWithDb;
+
+    public ItemAvailabilityIndex(BookingRepository bookingRepository,
+                                 @Value("${shareit.availability.verify-with-db:false}") boolean verifyWithDb) {
+        this.bookingRepository = bookingRepository;
+        this.verifyWithDb = verifyWithDb;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        itemIntervals.clear();
+        bookingRepository.findByStatusNotIn(Set.of(StatusBooking.REJECTED, StatusBooking.EXPIRED)).forEach(this::apply);
+        log.info("Индекс доступности вещей загружен, вещей с бронированиями: {}", itemIntervals.size());
+    }
+
+    public boolean isFree(Long itemId, LocalDateTime start, LocalDateTime end) {
+        final IntervalTree intervals = itemIntervals.get(itemId);
+        final boolean free = intervals == null || !intervals.overlaps(start, end);
+
+        if (!verifyWithDb) {
+            return free;
+        }
+
+        final boolean freeInDb = !bookingRepository.existsByItemIdInPeriodFromStartToEnd(itemId, start, end);
+        if (free != freeInDb) {
+            log.warn("Индекс доступности расходится с БД для вещи с id: {} в период {} - {}", itemId, start, end);
+        }
+        return freeInDb;
+    }
+
+    public void update(Booking booking) {
+        AfterCommit.run(() -> apply(booking));
+    }
+
+    public void updateAll(Collection<Booking> bookings) {
+        AfterCommit.run(() -> bookings.forEach(this::apply));
+    }
+
+    public void removeAll(Collection<Booking> bookings) {
+        AfterCommit.run(() -> bookings.forEach(this::remove));
+    }
+
+    public void removeItems(Collection<Long> itemIds) {
+        AfterCommit.run(() -> itemIds.forEach(itemIntervals::remove));
+    }
+
+    private void apply(Booking booking) {
+        if (booking.getStatus() == StatusBooking.REJECTED || booking.getStatus() == StatusBooking.EXPIRED) {
+            remove(booking);
+        } else {
+            itemIntervals.compute(booking.getItem().getId(), (id, intervals) -> {
+                final IntervalTree result = intervals == null ? new IntervalTree() : intervals;
+                result.put(booking.getId(), booking.getStart(), booking.getEnd());
+                return result;
+            });
+        }
+    }
+
+    private void remove(Booking booking) {
+        itemIntervals.computeIfPresent(booking.getItem().getId(), (id, intervals) -> {
+            intervals.remove(booking.getId());
+            return intervals.size() == 0 ? null : intervals;
+        });
+    }
+}
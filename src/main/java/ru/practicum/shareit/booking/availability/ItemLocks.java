@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped locks that serialize booking admission per item: two bookings of the same item
+ * never pass the check-then-insert window together, while other items keep running in parallel.
+ */
+@Component
+public class ItemLocks {
+    private final ReentrantLock[] stripes;
+
+    public ItemLocks(@Value("${shareit.availability.lock-stripes:64}") int stripeCount) {
+        stripes = new ReentrantLock[Math.max(1, stripeCount)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> T withItemLock(long itemId, Supplier<T> action) {
+        final ReentrantLock lock = stripes[Math.floorMod(Long.hashCode(itemId), stripes.length)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package ru.practicum.shareit.booking.dto;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.StatusBooking;
@@ -12,6 +11,7 @@ import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 
 @Component
 @RequiredArgsConstructor
@@ -30,20 +30,30 @@ public class BookingMapper {
                 .build();
     }
 
+    public BookingDtoShort toShortDto(Booking booking) {
+        return BookingDtoShort.builder()
+                .id(booking.getId())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .bookerId(booking.getBooker().getId())
+                .build();
+    }
+
     public Booking fromDto(BookingDto bookingDto, User booker, Item item, StatusBooking statusBooking) {
         return Booking.builder()
                 .id(bookingDto.getId())
                 .item(item)
                 .booker(booker)
+                .ownerId(item.getOwner().getId())
                 .start(bookingDto.getStart())
                 .end(bookingDto.getEnd())
                 .status(statusBooking)
                 .build();
     }
 
-    public List<BookingDtoOut> bookingsToDto(Page<Booking> bookings) {
-        return  bookings.stream()
-                        .map(this::toDto)
-                        .collect(Collectors.toList());
+    public List<BookingDtoOut> bookingsToDto(Iterable<Booking> bookings) {
+        return  StreamSupport.stream(bookings.spliterator(), false)
+                             .map(this::toDto)
+                             .collect(Collectors.toList());
     }
 }
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.booking.exeption;
+
+public class BookingExpired extends RuntimeException {
+
+    public BookingExpired(Long bookingId) {
+        super(String.format("Бронь с id: %s истекла без ответа владельца, изменить статус нельзя", bookingId));
+    }
+}
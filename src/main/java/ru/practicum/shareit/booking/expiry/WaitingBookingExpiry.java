@@ -0,0 +1,86 @@
+package ru.practicum.shareit.booking.expiry;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.StatusBooking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Moves WAITING bookings whose start has passed without an answer from the owner to EXPIRED.
+ * Every chunk is locked, updated and committed in its own short transaction, so a concurrent
+ * approval waits for at most one chunk and an approved booking is never expired.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.booking.expiry.enabled", havingValue = "true", matchIfMissing = true)
+public class WaitingBookingExpiry {
+    private final BookingRepository bookingRepository;
+
+    private final ItemAvailabilityIndex availabilityIndex;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int chunkSize;
+
+    private final int maxChunks;
+
+    public WaitingBookingExpiry(BookingRepository bookingRepository,
+                                ItemAvailabilityIndex availabilityIndex,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${shareit.booking.expiry.chunk-size:500}") int chunkSize,
+                                @Value("${shareit.booking.expiry.max-chunks:20}") int maxChunks) {
+        this.bookingRepository = bookingRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxChunks = maxChunks;
+    }
+
+    @Scheduled(initialDelayString = "${shareit.booking.expiry.delay:60000}",
+               fixedDelayString = "${shareit.booking.expiry.delay:60000}")
+    public void expire() {
+        expire(LocalDateTime.now());
+    }
+
+    int expire(LocalDateTime current) {
+        int expired = 0;
+        for (int chunk = 0; chunk < maxChunks; chunk++) {
+            final Integer count = transactionTemplate.execute(status -> expireChunk(current));
+            expired += count == null ? 0 : count;
+            if (count == null || count < chunkSize) {
+                break;
+            }
+        }
+        if (expired > 0) {
+            log.info("Истек срок ответа по бронированиям, переведено в EXPIRED: {}", expired);
+        }
+        return expired;
+    }
+
+    private int expireChunk(LocalDateTime current) {
+        final List<Booking> bookings = bookingRepository.findStartedForUpdate(StatusBooking.WAITING, current,
+                                                                              PageRequest.ofSize(chunkSize));
+        if (bookings.isEmpty()) {
+            return 0;
+        }
+
+        bookingRepository.updateStatus(bookings.stream().map(Booking::getId).collect(Collectors.toList()),
+                                       StatusBooking.EXPIRED);
+        bookings.forEach(f -> f.setStatus(StatusBooking.EXPIRED));
+        availabilityIndex.updateAll(bookings);
+
+        return bookings.size();
+    }
+}
@@ -18,6 +18,8 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.PrePersist;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import java.time.LocalDateTime;
 
@@ -30,7 +32,8 @@ import java.time.LocalDateTime;
 @Setter
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id", nullable = false)
@@ -38,10 +41,19 @@ public class Booking {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private final User booker;
+    @Column(name = "owner_id")
+    private Long ownerId;
     @Column(name = "start_data")
     private LocalDateTime start;
     @Column(name = "end_data")
     private LocalDateTime end;
     @Enumerated(EnumType.STRING)
     private StatusBooking status;
+
+    @PrePersist
+    private void fillOwnerId() {
+        if (ownerId == null && item != null) {
+            ownerId = item.getOwner().getId();
+        }
+    }
 }
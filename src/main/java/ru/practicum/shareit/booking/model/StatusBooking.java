@@ -3,5 +3,6 @@ package ru.practicum.shareit.booking.model;
 public enum StatusBooking {
     WAITING,
     APPROVED,
-    REJECTED
+    REJECTED,
+    EXPIRED
 }
@@ -1,82 +1,230 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.StatusBooking;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
+/**
+ * Queries that may return past bookings read the bookings_all view, which unions the hot
+ * bookings table with bookings_archive; CURRENT, FUTURE and overlap queries read the hot table only.
+ * List queries either fetch-join the item and booker or, being native, rely on batch fetching
+ * (hibernate.default_batch_fetch_size), so rendering a page costs a fixed number of statements.
+ * Hot-table queries are JPQL with their own ORDER BY and expect an unsorted page.
+ */
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    boolean existsByBookerIdAndItemIdAndEndBeforeAndStatus(Long bookerId, Long itemId,
-                                                           LocalDateTime current, StatusBooking status);
+    String SEEK_BY_START = "(b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId)) ";
+
+    String ORDER_BY_START = "ORDER BY b.start DESC, b.id DESC";
+
+    String SELECT_WITH_ITEM_AND_BOOKER = "SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker ";
+
+    String SEEK_BY_START_DATA = "(b.start_data < :cursorStart OR (b.start_data = :cursorStart AND b.id < :cursorId)) ";
+
+    String ORDER_BY_START_DATA = "ORDER BY b.start_data DESC, b.id DESC";
+
+    /**
+     * Name of the booker if they have a finished booking of the item, so that a new comment can be
+     * rendered without loading its author.
+     */
+    @Query(value = "SELECT u.name FROM users as u WHERE u.id = :bookerId AND EXISTS (" +
+            "SELECT b.id FROM bookings_all as b " +
+            "WHERE b.user_id = :bookerId AND b.item_id = :itemId AND b.end_data < :current " +
+            "AND b.status = :#{#status.name()})",
+            nativeQuery = true)
+    Optional<String> findBookerNameByBookerIdAndItemIdAndEndBeforeAndStatus(Long bookerId, Long itemId,
+                                                                            LocalDateTime current,
+                                                                            StatusBooking status);
 
     @Query(value = "SELECT case when count(b.id) > 0 then true else false end FROM bookings as b " +
-            "WHERE b.item_id = :itemId AND " +
-            "((b.start_data BETWEEN :start and :end) " +
-            " OR (b.end_data BETWEEN :start and :end) " +
-            " OR (b.start_data >= :start and b.end_data <= :end)) ",
+            "WHERE b.item_id = :itemId AND b.status IN ('WAITING', 'APPROVED') " +
+            "AND b.start_data <= :end AND b.end_data >= :start ",
             nativeQuery = true)
     boolean existsByItemIdInPeriodFromStartToEnd(Long itemId, LocalDateTime start, LocalDateTime end);
 
-    @Query(value = "SELECT * FROM bookings " +
-            "WHERE item_id in (:itemIds) AND status = :status " +
-            "ORDER BY start_data, end_data",
+    List<Booking> findByStatusNotIn(Collection<StatusBooking> statuses);
+
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = :userId OR b.ownerId = :userId")
+    List<Booking> findByBookerIdOrOwnerId(Long userId);
+
+    /**
+     * Locks the booking row, so a single approval and the expiry job never overwrite each other's status.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b WHERE b.id = :bookingId")
+    Optional<Booking> findByIdForUpdate(Long bookingId);
+
+    /**
+     * Locks only the booking rows; item and booker are loaded by {@link #findAllWithItemAndBooker}
+     * without a lock, so bulk approval does not write-lock the items or the bookers' users.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b WHERE b.id IN :bookingIds")
+    List<Booking> findAllForUpdate(Collection<Long> bookingIds);
+
+    @Query(SELECT_WITH_ITEM_AND_BOOKER + "WHERE b.id IN :bookingIds")
+    List<Booking> findAllWithItemAndBooker(Collection<Long> bookingIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :status WHERE b.id IN :bookingIds AND b.ownerId = :ownerId")
+    int updateStatus(Collection<Long> bookingIds, Long ownerId, StatusBooking status);
+
+    /**
+     * Returns at most two bookings per item: the latest one that has already started (last)
+     * and the earliest one that has not (next), ranked in the database instead of in memory.
+     */
+    @Query(value = "SELECT id, item_id, user_id, owner_id, start_data, end_data, status FROM (" +
+            "SELECT b.*, ROW_NUMBER() OVER (PARTITION BY b.item_id, b.start_data > :current " +
+            "ORDER BY CASE WHEN b.start_data > :current THEN b.start_data END, " +
+            "CASE WHEN b.start_data > :current THEN b.end_data END, " +
+            "b.start_data DESC, b.end_data DESC) AS rn " +
+            "FROM bookings_all AS b WHERE b.item_id in (:itemIds) AND b.status = :status) AS ranked " +
+            "WHERE rn = 1",
+            nativeQuery = true)
+    List<Booking> findLastAndNextByItems(Set<Long> itemIds, String status, LocalDateTime current);
+
+    @Query(value = "SELECT id, item_id, user_id, owner_id, start_data, end_data, status FROM (" +
+            "SELECT b.*, ROW_NUMBER() OVER (PARTITION BY b.item_id " +
+            "ORDER BY b.start_data DESC, b.end_data DESC) AS rn " +
+            "FROM bookings_all AS b WHERE b.status = :status AND b.start_data <= :current) AS ranked " +
+            "WHERE rn = 1",
+            nativeQuery = true)
+    List<Booking> findLastStartedByStatus(String status, LocalDateTime current);
+
+    List<Booking> findByStatusAndStartAfter(StatusBooking status, LocalDateTime current);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b WHERE b.status = :status AND b.start < :current ORDER BY b.id")
+    List<Booking> findStartedForUpdate(StatusBooking status, LocalDateTime current, Pageable pageable);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :status WHERE b.id IN :bookingIds")
+    int updateStatus(Collection<Long> bookingIds, StatusBooking status);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b WHERE b.end < :threshold AND b.status <> :status ORDER BY b.id")
+    List<Booking> findEndedForUpdate(LocalDateTime threshold, StatusBooking status, Pageable pageable);
+
+    /**
+     * The archive table is the only query space touched, otherwise Hibernate treats the native insert
+     * as affecting every table and evicts all second-level cache regions on each chunk.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.NATIVE_SPACES, value = "bookings_archive"))
+    @Query(value = "INSERT INTO bookings_archive (id, user_id, item_id, owner_id, start_data, end_data, status) " +
+            "SELECT id, user_id, item_id, owner_id, start_data, end_data, status FROM bookings " +
+            "WHERE id IN (:bookingIds)",
             nativeQuery = true)
-    List<Booking> findByItemsBooking(Set<Long> itemIds, String status);
+    int copyToArchive(Collection<Long> bookingIds);
 
-    Page<Booking> findByBookerId(Long bookerId, Pageable pageable);
+    @Query(value = "SELECT * FROM bookings_all WHERE user_id = :bookerId",
+           nativeQuery = true)
+    Slice<Booking> findByBookerId(Long bookerId, Pageable pageable);
 
-    Page<Booking> findByBookerIdAndEndBefore(Long bookerId, LocalDateTime current, Pageable pageable);
+    @Query(value = "SELECT * FROM bookings_all WHERE user_id = :bookerId AND end_data < :current",
+           nativeQuery = true)
+    Slice<Booking> findByBookerIdAndEndBefore(Long bookerId, LocalDateTime current, Pageable pageable);
 
-    Page<Booking> findByBookerIdAndStartAfter(Long bookerId, LocalDateTime current, Pageable pageable);
+    @Query(SELECT_WITH_ITEM_AND_BOOKER + "WHERE b.booker.id = :bookerId AND b.start > :current " + ORDER_BY_START)
+    Slice<Booking> findByBookerIdAndStartAfter(Long bookerId, LocalDateTime current, Pageable pageable);
 
-    Page<Booking> findByBookerIdAndStatus(Long bookerId, StatusBooking status, Pageable pageable);
+    @Query(value = "SELECT * FROM bookings_all WHERE user_id = :bookerId AND status = :#{#status.name()}",
+           nativeQuery = true)
+    Slice<Booking> findByBookerIdAndStatus(Long bookerId, StatusBooking status, Pageable pageable);
 
-    Page<Booking> findByBookerIdAndStartLessThanEqualAndEndGreaterThanEqual(Long bookerId, LocalDateTime start,
+    @Query(SELECT_WITH_ITEM_AND_BOOKER + "WHERE b.booker.id = :bookerId AND b.start <= :start AND b.end >= :end " +
+           ORDER_BY_START)
+    Slice<Booking> findByBookerIdAndStartLessThanEqualAndEndGreaterThanEqual(Long bookerId, LocalDateTime start,
                                                                             LocalDateTime end, Pageable pageable);
 
-    @Query(value = "SELECT * FROM bookings as b " +
-                   "JOIN items as i on b.item_id = i.id " +
-                   "WHERE b.id = :bookerId AND (b.user_id = :ownerId or i.user_id = :ownerId)",
+    @Query(value = "SELECT * FROM bookings_all " +
+                   "WHERE id = :bookerId AND (user_id = :ownerId or owner_id = :ownerId)",
             nativeQuery = true)
     Optional<Booking> findBookingByIdForOwner(Long bookerId, Long ownerId);
 
-    @Query(value = "SELECT * FROM bookings WHERE item_id in (SELECT id FROM items WHERE user_id = :ownerId)",
-          countQuery = "SELECT count(*) FROM bookings WHERE item_id in (SELECT id FROM items WHERE user_id = :ownerId)",
-          nativeQuery = true)
-    Page<Booking> findByOwnerId(Long ownerId, Pageable pageable);
+    @Query(value = "SELECT * FROM bookings_all WHERE owner_id = :ownerId",
+           nativeQuery = true)
+    Slice<Booking> findByOwnerId(Long ownerId, Pageable pageable);
+
+    @Query(SELECT_WITH_ITEM_AND_BOOKER + "WHERE b.ownerId = :ownerId " +
+           "AND b.start <= :current AND b.end >= :current " + ORDER_BY_START)
+    Slice<Booking> findByOwnerIdCurrent(Long ownerId, LocalDateTime current, Pageable pageable);
 
-    @Query(value = "SELECT * FROM bookings WHERE item_id in (SELECT id FROM items WHERE user_id = :ownerId) AND " +
-                   "start_data <= :current AND end_data >= :current ",
-    countQuery = "SELECT count(*) FROM bookings WHERE item_id in (SELECT id FROM items WHERE user_id = :ownerId) AND " +
-                 "start_data <= :current AND end_data >= :current ",
+    @Query(SELECT_WITH_ITEM_AND_BOOKER + "WHERE b.ownerId = :ownerId AND b.start > :current " + ORDER_BY_START)
+    Slice<Booking> findByOwnerIdFuture(Long ownerId, LocalDateTime current, Pageable pageable);
+
+    @Query(value = "SELECT * FROM bookings_all WHERE owner_id = :ownerId AND end_data < :current ",
+           nativeQuery = true)
+    Slice<Booking> findByOwnerIdPast(Long ownerId, LocalDateTime current, Pageable pageable);
+
+    @Query(value = "SELECT * FROM bookings_all WHERE owner_id = :ownerId AND status = :status ",
            nativeQuery = true)
-    Page<Booking> findByOwnerIdCurrent(Long ownerId, LocalDateTime current, Pageable pageable);
+    Slice<Booking> findByOwnerIdAndStatus(Long ownerId, String status, Pageable pageable);
+
+    @Query(value = "SELECT * FROM bookings_all AS b WHERE b.user_id = :bookerId AND " +
+                   SEEK_BY_START_DATA + ORDER_BY_START_DATA,
+           nativeQuery = true)
+    List<Booking> seekByBookerId(Long bookerId, LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+
+    @Query(SELECT_WITH_ITEM_AND_BOOKER + "WHERE b.booker.id = :bookerId " +
+           "AND b.start <= :current AND b.end >= :current AND " + SEEK_BY_START + ORDER_BY_START)
+    List<Booking> seekByBookerIdCurrent(Long bookerId, LocalDateTime current, LocalDateTime cursorStart,
+                                        Long cursorId, Pageable pageable);
+
+    @Query(SELECT_WITH_ITEM_AND_BOOKER + "WHERE b.booker.id = :bookerId AND b.start > :current " +
+           "AND " + SEEK_BY_START + ORDER_BY_START)
+    List<Booking> seekByBookerIdFuture(Long bookerId, LocalDateTime current, LocalDateTime cursorStart,
+                                       Long cursorId, Pageable pageable);
 
-    @Query(value = "SELECT * FROM bookings WHERE item_id in (SELECT id FROM items WHERE user_id = :ownerId) " +
-                   "AND start_data > :current ",
-      countQuery = "SELECT count(*) FROM bookings WHERE item_id in (SELECT id FROM items WHERE user_id = :ownerId) " +
-                   "AND start_data > :current ",
+    @Query(value = "SELECT * FROM bookings_all AS b WHERE b.user_id = :bookerId AND b.end_data < :current " +
+                   "AND " + SEEK_BY_START_DATA + ORDER_BY_START_DATA,
            nativeQuery = true)
-    Page<Booking> findByOwnerIdFuture(Long ownerId, LocalDateTime current, Pageable pageable);
+    List<Booking> seekByBookerIdPast(Long bookerId, LocalDateTime current, LocalDateTime cursorStart,
+                                     Long cursorId, Pageable pageable);
+
+    @Query(value = "SELECT * FROM bookings_all AS b WHERE b.user_id = :bookerId " +
+                   "AND b.status = :#{#status.name()} AND " + SEEK_BY_START_DATA + ORDER_BY_START_DATA,
+           nativeQuery = true)
+    List<Booking> seekByBookerIdAndStatus(Long bookerId, StatusBooking status, LocalDateTime cursorStart,
+                                          Long cursorId, Pageable pageable);
+
+    @Query(value = "SELECT * FROM bookings_all AS b WHERE b.owner_id = :ownerId AND " +
+                   SEEK_BY_START_DATA + ORDER_BY_START_DATA,
+           nativeQuery = true)
+    List<Booking> seekByOwnerId(Long ownerId, LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+
+    @Query(SELECT_WITH_ITEM_AND_BOOKER + "WHERE b.ownerId = :ownerId " +
+           "AND b.start <= :current AND b.end >= :current AND " + SEEK_BY_START + ORDER_BY_START)
+    List<Booking> seekByOwnerIdCurrent(Long ownerId, LocalDateTime current, LocalDateTime cursorStart,
+                                       Long cursorId, Pageable pageable);
+
+    @Query(SELECT_WITH_ITEM_AND_BOOKER + "WHERE b.ownerId = :ownerId AND b.start > :current " +
+           "AND " + SEEK_BY_START + ORDER_BY_START)
+    List<Booking> seekByOwnerIdFuture(Long ownerId, LocalDateTime current, LocalDateTime cursorStart,
+                                      Long cursorId, Pageable pageable);
 
-    @Query(value = "SELECT * FROM bookings WHERE item_id in (SELECT id FROM items WHERE user_id = :ownerId) " +
-                   "AND end_data < :current ",
-      countQuery = "SELECT count(*) FROM bookings WHERE item_id in (SELECT id FROM items WHERE user_id = :ownerId) " +
-                   "AND end_data < :current ",
+    @Query(value = "SELECT * FROM bookings_all AS b WHERE b.owner_id = :ownerId AND b.end_data < :current " +
+                   "AND " + SEEK_BY_START_DATA + ORDER_BY_START_DATA,
            nativeQuery = true)
-    Page<Booking> findByOwnerIdPast(Long ownerId, LocalDateTime current, Pageable pageable);
+    List<Booking> seekByOwnerIdPast(Long ownerId, LocalDateTime current, LocalDateTime cursorStart,
+                                    Long cursorId, Pageable pageable);
 
-    @Query(value = "SELECT * FROM bookings WHERE item_id in (SELECT i.id FROM items AS i WHERE i.user_id = :ownerId) " +
-                   "AND status = :status ",
-      countQuery = "SELECT count(*) FROM bookings WHERE item_id in (SELECT i.id FROM items AS i " +
-                   "WHERE i.user_id = :ownerId) AND status = :status ",
+    @Query(value = "SELECT * FROM bookings_all AS b WHERE b.owner_id = :ownerId " +
+                   "AND b.status = :#{#status.name()} AND " + SEEK_BY_START_DATA + ORDER_BY_START_DATA,
            nativeQuery = true)
-    Page<Booking> findByOwnerIdAndStatus(Long ownerId, String status, Pageable pageable);
-}
\ No newline at end of file
+    List<Booking> seekByOwnerIdAndStatus(Long ownerId, StatusBooking status, LocalDateTime cursorStart,
+                                         Long cursorId, Pageable pageable);
+}
@@ -3,8 +3,10 @@ package ru.practicum.shareit.booking.service;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
 import ru.practicum.shareit.booking.model.StateBooking;
+import ru.practicum.shareit.pagination.PageCursor;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface BookingService {
@@ -12,9 +14,15 @@ public interface BookingService {
 
     BookingDtoOut approvedBooking(Long ownerId, Long bookingId, Boolean approved);
 
+    List<BookingDtoOut> approveBookings(Long ownerId, Collection<Long> bookingIds, Boolean approved);
+
     BookingDtoOut getBookingById(Long ownerId, Long bookingId);
 
     List<BookingDtoOut> getBookingsByBookerId(Long bookerId, StateBooking stateBooking, int from, int size);
 
     List<BookingDtoOut> getBookingsByOwnerId(Long ownerId, StateBooking stateBooking, int from, int size);
+
+    List<BookingDtoOut> getBookingsByBookerId(Long bookerId, StateBooking stateBooking, PageCursor cursor, int size);
+
+    List<BookingDtoOut> getBookingsByOwnerId(Long ownerId, StateBooking stateBooking, PageCursor cursor, int size);
 }
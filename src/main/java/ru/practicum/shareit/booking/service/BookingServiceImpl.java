@@ -1,32 +1,45 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.availability.ItemLocks;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.exeption.AttemptApprovedNotFromOwnerItem;
+import ru.practicum.shareit.booking.exeption.BookingExpired;
 import ru.practicum.shareit.booking.exeption.NoAccessBooking;
 import ru.practicum.shareit.booking.exeption.NotCorrectApproved;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.StateBooking;
 import ru.practicum.shareit.booking.model.StatusBooking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.summary.ItemBookingSummary;
 import ru.practicum.shareit.exeption.EntityNotFoundException;
 
 import ru.practicum.shareit.item.exeption.ItemUnavailable;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.cache.UserExistenceCache;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -35,10 +48,18 @@ public class BookingServiceImpl implements BookingService {
 
     private final UserRepository userRepository;
 
+    private final UserExistenceCache userCache;
+
     private final ItemRepository itemRepository;
 
     private final BookingMapper bookingMapper;
 
+    private final ItemAvailabilityIndex availabilityIndex;
+
+    private final ItemBookingSummary bookingSummary;
+
+    private final ItemLocks itemLocks;
+
     @Override
     public BookingDtoOut createBooking(Long bookerId, BookingDto bookingDto, LocalDateTime current) {
         final User booker = findUserById(bookerId);
@@ -51,32 +72,40 @@ public class BookingServiceImpl implements BookingService {
             throw new ItemUnavailable(item.getId());
         }
 
-        if (!checkItemFree(item.getId(), start, end)) {
-            throw new NoAccessBooking(bookerId, item.getId());
-        }
-
         if (Objects.equals(item.getOwner().getId(), bookerId)) {
             throw new NoAccessBooking(bookerId, item.getId());
         }
 
         bookingDto.setId(null);
 
-        final Booking newBooking = bookingRepository.save(bookingMapper.fromDto(bookingDto, booker,
-                                                                         item, StatusBooking.WAITING));
+        final Booking newBooking = itemLocks.withItemLock(item.getId(), () -> {
+            if (!checkItemFree(item.getId(), start, end)) {
+                throw new NoAccessBooking(bookerId, item.getId());
+            }
+
+            final Booking booking = bookingRepository.save(bookingMapper.fromDto(bookingDto, booker,
+                                                                          item, StatusBooking.WAITING));
+            availabilityIndex.update(booking);
+            return booking;
+        });
 
         return bookingMapper.toDto(newBooking);
     }
 
     @Override
+    @Transactional
     public BookingDtoOut approvedBooking(Long userId, Long bookingId, Boolean approved) {
-        findUserById(userId);
+        userCache.requireExists(userId);
 
-        final Booking booking = findBookingById(bookingId);
+        final Booking booking = findBookingByIdForUpdate(bookingId);
         final Item item = booking.getItem();
 
         if (booking.getStatus() == StatusBooking.APPROVED) {
             throw new NotCorrectApproved(bookingId);
         }
+        if (booking.getStatus() == StatusBooking.EXPIRED) {
+            throw new BookingExpired(bookingId);
+        }
         if (!Objects.equals(item.getOwner().getId(), userId)) {
             throw new AttemptApprovedNotFromOwnerItem(userId, item.getId());
         }
@@ -87,10 +116,51 @@ public class BookingServiceImpl implements BookingService {
         }
 
         bookingRepository.save(booking);
+        availabilityIndex.update(booking);
+        bookingSummary.update(booking);
 
         return bookingMapper.toDto(booking);
     }
 
+    @Override
+    @Transactional
+    public List<BookingDtoOut> approveBookings(Long userId, Collection<Long> bookingIds, Boolean approved) {
+        userCache.requireExists(userId);
+
+        final Set<Long> ids = new LinkedHashSet<>(bookingIds);
+        final Map<Long, Booking> bookings = bookingRepository.findAllForUpdate(ids).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+
+        for (Long bookingId : ids) {
+            final Booking booking = bookings.get(bookingId);
+            if (booking == null) {
+                throw new EntityNotFoundException(bookingId, Booking.class);
+            }
+            if (booking.getStatus() == StatusBooking.APPROVED) {
+                throw new NotCorrectApproved(bookingId);
+            }
+            if (booking.getStatus() == StatusBooking.EXPIRED) {
+                throw new BookingExpired(bookingId);
+            }
+            if (!Objects.equals(booking.getOwnerId(), userId)) {
+                throw new AttemptApprovedNotFromOwnerItem(userId, booking.getItem().getId());
+            }
+        }
+
+        final Map<Long, Booking> loaded = bookingRepository.findAllWithItemAndBooker(ids).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+
+        final StatusBooking status = approved ? StatusBooking.APPROVED : StatusBooking.REJECTED;
+        bookingRepository.updateStatus(ids, userId, status);
+
+        final List<Booking> result = ids.stream().map(loaded::get).collect(Collectors.toList());
+        result.forEach(f -> f.setStatus(status));
+        availabilityIndex.updateAll(result);
+        bookingSummary.updateAll(result);
+
+        return bookingMapper.bookingsToDto(result);
+    }
+
     @Override
     public BookingDtoOut getBookingById(Long ownerId, Long bookingId) {
         return bookingMapper.toDto(findBookingByIdForOwner(bookingId, ownerId));
@@ -99,10 +169,11 @@ public class BookingServiceImpl implements BookingService {
     @Override
     public List<BookingDtoOut> getBookingsByBookerId(Long bookerId, StateBooking stateBooking, int from, int size) {
         final LocalDateTime current = LocalDateTime.now();
-        Page<Booking> result;
-        findUserById(bookerId);
-        Pageable pageable = PageRequest.of(from > 0 ? from / size : 0, size,
-                                           Sort.by("start").descending());
+        Slice<Booking> result;
+        userCache.requireExists(bookerId);
+        final int page = from > 0 ? from / size : 0;
+        Pageable pageable = PageRequest.of(page, size,
+                                           Sort.by("start_data").descending().and(Sort.by("id").descending()));
 
         switch (stateBooking) {
             case ALL:
@@ -110,10 +181,10 @@ public class BookingServiceImpl implements BookingService {
                 break;
             case CURRENT:
                 result = bookingRepository.findByBookerIdAndStartLessThanEqualAndEndGreaterThanEqual(bookerId, current,
-                                                                                                     current, pageable);
+                                                                                current, PageRequest.of(page, size));
                 break;
             case FUTURE:
-                result = bookingRepository.findByBookerIdAndStartAfter(bookerId, current, pageable);
+                result = bookingRepository.findByBookerIdAndStartAfter(bookerId, current, PageRequest.of(page, size));
                 break;
             case PAST:
                 result = bookingRepository.findByBookerIdAndEndBefore(bookerId, current, pageable);
@@ -134,20 +205,21 @@ public class BookingServiceImpl implements BookingService {
     @Override
     public List<BookingDtoOut> getBookingsByOwnerId(Long ownerId, StateBooking stateBooking, int from, int size) {
         final LocalDateTime current = LocalDateTime.now();
-        Page<Booking> result;
-        findUserById(ownerId);
-        Pageable pageable = PageRequest.of(from > 0 ? from / size : 0, size,
-                            Sort.by("start_data").descending());
+        Slice<Booking> result;
+        userCache.requireExists(ownerId);
+        final int page = from > 0 ? from / size : 0;
+        Pageable pageable = PageRequest.of(page, size,
+                            Sort.by("start_data").descending().and(Sort.by("id").descending()));
 
         switch (stateBooking) {
             case ALL:
                 result = bookingRepository.findByOwnerId(ownerId, pageable);
                 break;
             case CURRENT:
-                result = bookingRepository.findByOwnerIdCurrent(ownerId, current, pageable);
+                result = bookingRepository.findByOwnerIdCurrent(ownerId, current, PageRequest.of(page, size));
                 break;
             case FUTURE:
-                result = bookingRepository.findByOwnerIdFuture(ownerId, current, pageable);
+                result = bookingRepository.findByOwnerIdFuture(ownerId, current, PageRequest.of(page, size));
                 break;
             case PAST:
                 result = bookingRepository.findByOwnerIdPast(ownerId, current, pageable);
@@ -167,6 +239,78 @@ public class BookingServiceImpl implements BookingService {
         return bookingMapper.bookingsToDto(result);
     }
 
+    @Override
+    public List<BookingDtoOut> getBookingsByBookerId(Long bookerId, StateBooking stateBooking,
+                                                     PageCursor cursor, int size) {
+        final LocalDateTime current = LocalDateTime.now();
+        final LocalDateTime start = cursor.getPosition();
+        final Long id = cursor.getId();
+        final Pageable limit = PageRequest.ofSize(size);
+        List<Booking> result;
+        userCache.requireExists(bookerId);
+
+        switch (stateBooking) {
+            case ALL:
+                result = bookingRepository.seekByBookerId(bookerId, start, id, limit);
+                break;
+            case CURRENT:
+                result = bookingRepository.seekByBookerIdCurrent(bookerId, current, start, id, limit);
+                break;
+            case FUTURE:
+                result = bookingRepository.seekByBookerIdFuture(bookerId, current, start, id, limit);
+                break;
+            case PAST:
+                result = bookingRepository.seekByBookerIdPast(bookerId, current, start, id, limit);
+                break;
+            case WAITING:
+                result = bookingRepository.seekByBookerIdAndStatus(bookerId, StatusBooking.WAITING, start, id, limit);
+                break;
+            case REJECTED:
+                result = bookingRepository.seekByBookerIdAndStatus(bookerId, StatusBooking.REJECTED, start, id, limit);
+                break;
+            default:
+                throw new EntityNotFoundException(0L, StateBooking.class);
+        }
+
+        return bookingMapper.bookingsToDto(result);
+    }
+
+    @Override
+    public List<BookingDtoOut> getBookingsByOwnerId(Long ownerId, StateBooking stateBooking,
+                                                    PageCursor cursor, int size) {
+        final LocalDateTime current = LocalDateTime.now();
+        final LocalDateTime start = cursor.getPosition();
+        final Long id = cursor.getId();
+        final Pageable limit = PageRequest.ofSize(size);
+        List<Booking> result;
+        userCache.requireExists(ownerId);
+
+        switch (stateBooking) {
+            case ALL:
+                result = bookingRepository.seekByOwnerId(ownerId, start, id, limit);
+                break;
+            case CURRENT:
+                result = bookingRepository.seekByOwnerIdCurrent(ownerId, current, start, id, limit);
+                break;
+            case FUTURE:
+                result = bookingRepository.seekByOwnerIdFuture(ownerId, current, start, id, limit);
+                break;
+            case PAST:
+                result = bookingRepository.seekByOwnerIdPast(ownerId, current, start, id, limit);
+                break;
+            case WAITING:
+                result = bookingRepository.seekByOwnerIdAndStatus(ownerId, StatusBooking.WAITING, start, id, limit);
+                break;
+            case REJECTED:
+                result = bookingRepository.seekByOwnerIdAndStatus(ownerId, StatusBooking.REJECTED, start, id, limit);
+                break;
+            default:
+                throw new EntityNotFoundException(0L, StateBooking.class);
+        }
+
+        return bookingMapper.bookingsToDto(result);
+    }
+
     private User findUserById(long userId) {
         return userRepository.findById(userId)
                 .orElseThrow(() -> new EntityNotFoundException(userId, User.class));
@@ -177,8 +321,8 @@ public class BookingServiceImpl implements BookingService {
                 .orElseThrow(() -> new EntityNotFoundException(itemId, Item.class));
     }
 
-    private Booking findBookingById(long bookingId) {
-        return bookingRepository.findById(bookingId)
+    private Booking findBookingByIdForUpdate(long bookingId) {
+        return bookingRepository.findByIdForUpdate(bookingId)
                 .orElseThrow(() -> new EntityNotFoundException(bookingId, Booking.class));
     }
 
@@ -188,6 +332,6 @@ public class BookingServiceImpl implements BookingService {
     }
 
     private boolean checkItemFree(Long itemId, LocalDateTime start, LocalDateTime end) {
-        return !bookingRepository.existsByItemIdInPeriodFromStartToEnd(itemId, start, end);
+        return availabilityIndex.isFree(itemId, start, end);
     }
 }
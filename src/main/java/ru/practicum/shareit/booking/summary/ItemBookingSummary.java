@@ -0,0 +1,203 @@
+package ru.practicum.shareit.booking.summary;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.StatusBooking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.transaction.AfterCommit;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Read model of the last and next approved booking of every item, so owner item views do not
+ * rank the booking history. Only the latest started booking and the upcoming ones are kept; an
+ * upcoming booking is promoted to last after commit of its approval if it has already started,
+ * and otherwise by the scheduler once its start passes.
+ */
+@Slf4j
+@Component
+public class ItemBookingSummary {
+    private static final Comparator<BookingDtoShort> BY_START = Comparator.comparing(BookingDtoShort::getStart)
+                                                                          .thenComparing(BookingDtoShort::getEnd)
+                                                                          .thenComparing(BookingDtoShort::getId);
+
+    private final Map<Long, BookingDtoShort> lastBookings = new HashMap<>();
+
+    private final Map<Long, NavigableSet<BookingDtoShort>> upcomingBookings = new HashMap<>();
+
+    private final NavigableMap<BookingDtoShort, Long> upcomingItems = new TreeMap<>(BY_START);
+
+    private final BookingRepository bookingRepository;
+
+    private final BookingMapper bookingMapper;
+
+    public ItemBookingSummary(BookingRepository bookingRepository, BookingMapper bookingMapper) {
+        this.bookingRepository = bookingRepository;
+        this.bookingMapper = bookingMapper;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void warmUp() {
+        final LocalDateTime current = LocalDateTime.now();
+        final String approved = String.valueOf(StatusBooking.APPROVED);
+
+        lastBookings.clear();
+        upcomingBookings.clear();
+        upcomingItems.clear();
+        bookingRepository.findLastStartedByStatus(approved, current)
+                         .forEach(f -> promote(f.getItem().getId(), bookingMapper.toShortDto(f)));
+        bookingRepository.findByStatusAndStartAfter(StatusBooking.APPROVED, current)
+                         .forEach(f -> addUpcoming(f.getItem().getId(), bookingMapper.toShortDto(f)));
+        log.info("Сводка бронирований загружена, вещей с прошедшими бронированиями: {}, с будущими: {}",
+                 lastBookings.size(), upcomingBookings.size());
+    }
+
+    public synchronized BookingDtoShort getLastBooking(long itemId, LocalDateTime current) {
+        BookingDtoShort last = lastBookings.get(itemId);
+        for (BookingDtoShort booking : upcomingBookings.getOrDefault(itemId, Collections.emptyNavigableSet())) {
+            if (booking.getStart().isAfter(current)) {
+                break;
+            }
+            last = booking;
+        }
+        return last;
+    }
+
+    public synchronized BookingDtoShort getNextBooking(long itemId, LocalDateTime current) {
+        for (BookingDtoShort booking : upcomingBookings.getOrDefault(itemId, Collections.emptyNavigableSet())) {
+            if (booking.getStart().isAfter(current)) {
+                return booking;
+            }
+        }
+        return null;
+    }
+
+    public void update(Booking booking) {
+        AfterCommit.run(() -> apply(booking, LocalDateTime.now()));
+    }
+
+    public void updateAll(Collection<Booking> bookings) {
+        AfterCommit.run(() -> {
+            final LocalDateTime current = LocalDateTime.now();
+            bookings.forEach(f -> apply(f, current));
+        });
+    }
+
+    /**
+     * Forgets bookings removed by ON DELETE CASCADE: deleted items are dropped entirely, and an
+     * item that lost its last booking reloads it after commit.
+     */
+    public void removeAll(Collection<Booking> bookings, Collection<Long> itemIds) {
+        AfterCommit.run(() -> remove(bookings, Set.copyOf(itemIds), LocalDateTime.now()));
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.summary.advance-delay:60000}")
+    public void advance() {
+        advance(LocalDateTime.now());
+    }
+
+    synchronized void advance(LocalDateTime current) {
+        int promoted = 0;
+        while (!upcomingItems.isEmpty() && !upcomingItems.firstKey().getStart().isAfter(current)) {
+            final Map.Entry<BookingDtoShort, Long> entry = upcomingItems.pollFirstEntry();
+            removeUpcoming(entry.getValue(), entry.getKey());
+            promote(entry.getValue(), entry.getKey());
+            promoted++;
+        }
+        if (promoted > 0) {
+            log.debug("Сводка бронирований: начавшихся бронирований перенесено в последние: {}", promoted);
+        }
+    }
+
+    private synchronized void apply(Booking booking, LocalDateTime current) {
+        final Long itemId = booking.getItem().getId();
+        final BookingDtoShort previousLast = lastBookings.get(itemId);
+
+        dropUpcoming(itemId, booking.getId());
+
+        if (booking.getStatus() == StatusBooking.APPROVED) {
+            final BookingDtoShort summary = bookingMapper.toShortDto(booking);
+            if (booking.getStart().isAfter(current)) {
+                addUpcoming(itemId, summary);
+            } else {
+                promote(itemId, summary);
+            }
+        } else if (previousLast != null && Objects.equals(previousLast.getId(), booking.getId())) {
+            reloadLast(itemId, current);
+        }
+    }
+
+    private synchronized void remove(Collection<Booking> bookings, Set<Long> itemIds, LocalDateTime current) {
+        itemIds.forEach(itemId -> {
+            lastBookings.remove(itemId);
+            final NavigableSet<BookingDtoShort> upcoming = upcomingBookings.remove(itemId);
+            if (upcoming != null) {
+                upcoming.forEach(upcomingItems::remove);
+            }
+        });
+
+        for (Booking booking : bookings) {
+            final Long itemId = booking.getItem().getId();
+            if (itemIds.contains(itemId)) {
+                continue;
+            }
+            dropUpcoming(itemId, booking.getId());
+            final BookingDtoShort last = lastBookings.get(itemId);
+            if (last != null && Objects.equals(last.getId(), booking.getId())) {
+                reloadLast(itemId, current);
+            }
+        }
+    }
+
+    private void dropUpcoming(Long itemId, Long bookingId) {
+        upcomingBookings.getOrDefault(itemId, Collections.emptyNavigableSet())
+                        .stream()
+                        .filter(f -> Objects.equals(f.getId(), bookingId))
+                        .findFirst()
+                        .ifPresent(f -> {
+                            removeUpcoming(itemId, f);
+                            upcomingItems.remove(f);
+                        });
+    }
+
+    private void reloadLast(Long itemId, LocalDateTime current) {
+        lastBookings.remove(itemId);
+        bookingRepository.findLastAndNextByItems(Set.of(itemId), String.valueOf(StatusBooking.APPROVED), current)
+                         .stream()
+                         .filter(f -> !f.getStart().isAfter(current))
+                         .forEach(f -> promote(itemId, bookingMapper.toShortDto(f)));
+    }
+
+    private void promote(Long itemId, BookingDtoShort booking) {
+        lastBookings.merge(itemId, booking, (last, candidate) -> BY_START.compare(candidate, last) > 0 ? candidate : last);
+    }
+
+    private void addUpcoming(Long itemId, BookingDtoShort booking) {
+        upcomingBookings.computeIfAbsent(itemId, id -> new TreeSet<>(BY_START)).add(booking);
+        upcomingItems.put(booking, itemId);
+    }
+
+    private void removeUpcoming(Long itemId, BookingDtoShort booking) {
+        upcomingBookings.computeIfPresent(itemId, (id, bookings) -> {
+            bookings.remove(booking);
+            return bookings.isEmpty() ? null : bookings;
+        });
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import ru.practicum.shareit.booking.exeption.AttemptApprovedNotFromOwnerItem;
+import ru.practicum.shareit.booking.exeption.BookingExpired;
 import ru.practicum.shareit.booking.exeption.NoAccessBooking;
 import ru.practicum.shareit.booking.exeption.NotCorrectApproved;
 import ru.practicum.shareit.item.exeption.ItemBelongsAnotherOwner;
@@ -63,8 +64,16 @@ public class ErrorHandler {
         return new ErrorResponse("Не указан заголовок " + ContextShareIt.HEADER_USER_ID);
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleInvalidCursor(final InvalidCursor e) {
+        log.error("Ошибка пагинации {}", e.getMessage(), e);
+        return new ErrorResponse(e.getMessage());
+    }
+
     @ExceptionHandler({ItemUnavailable.class,
-                       NotCorrectApproved.class})
+                       NotCorrectApproved.class,
+                       BookingExpired.class})
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleAttemptApprovedNotFromOwnerItem(final RuntimeException e) {
         log.error("Нет прав на выполняемое действие {}", e.getMessage(), e);
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.exeption;
+
+public class InvalidCursor extends RuntimeException {
+
+    public InvalidCursor(String cursor) {
+        super(String.format("Некорректный курсор страницы: %s", cursor));
+    }
+}
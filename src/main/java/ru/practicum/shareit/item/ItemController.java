@@ -1,29 +1,37 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import ru.practicum.shareit.item.bulk.ItemImportFormat;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentDtoShort;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoWithBookings;
+import ru.practicum.shareit.item.dto.ItemImportReport;
+import ru.practicum.shareit.item.service.ItemImportService;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.validation.Create;
 import ru.practicum.shareit.validation.Update;
-import ru.practicum.shareit.validation.ContextShareIt;
+import ru.practicum.shareit.user.sharer.SharerUserId;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -34,46 +42,87 @@ import java.util.List;
 public class ItemController {
     private final ItemService itemService;
 
+    private final ItemImportService itemImportService;
+
     @PostMapping
-    public ItemDto createItem(@RequestHeader(ContextShareIt.HEADER_USER_ID) Long userId,
+    public ItemDto createItem(@SharerUserId Long userId,
                                @Validated(Create.class) @RequestBody ItemDto item) {
         return itemService.createItem(userId, item);
     }
 
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ItemImportReport importItemsFromJsonLines(@SharerUserId Long userId, InputStream body) {
+        return itemImportService.importItems(userId, ItemImportFormat.JSON_LINES,
+                                             new InputStreamReader(body, StandardCharsets.UTF_8));
+    }
+
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public ItemImportReport importItemsFromCsv(@SharerUserId Long userId, InputStream body) {
+        return itemImportService.importItems(userId, ItemImportFormat.CSV,
+                                             new InputStreamReader(body, StandardCharsets.UTF_8));
+    }
+
     @PatchMapping("/{itemId}")
-    public ItemDto updateItem(@RequestHeader(ContextShareIt.HEADER_USER_ID) Long userId,
+    public ItemDto updateItem(@SharerUserId Long userId,
                                @PathVariable Long itemId,
                                 @Validated(Update.class) @RequestBody ItemDto item) {
         return itemService.updateItem(userId, itemId, item);
     }
 
     @GetMapping("/{itemId}")
-    public ItemDtoWithBookings getItemByIdForUserId(@RequestHeader(ContextShareIt.HEADER_USER_ID) Long userId,
+    public ItemDtoWithBookings getItemByIdForUserId(@SharerUserId Long userId,
                                                     @PathVariable Long itemId) {
         return itemService.getItemByIdForUserId(userId, itemId);
     }
 
     @GetMapping
-    public List<ItemDtoWithBookings> getItemsByUserId(@RequestHeader(ContextShareIt.HEADER_USER_ID) Long userId,
+    public List<ItemDtoWithBookings> getItemsByUserId(@SharerUserId Long userId,
                                                       @PositiveOrZero @RequestParam(name = "from",
                                                               defaultValue = "0") Integer from,
                                                       @Positive @RequestParam(name = "size",
-                                                              defaultValue = "10") Integer size) {
-        return itemService.getItemsByUserId(userId, from, size);
+                                                              defaultValue = "10") Integer size,
+                                                      @RequestParam(name = "cursor", required = false) String cursor,
+                                                      HttpServletResponse response) {
+        final List<ItemDtoWithBookings> items = cursor == null
+                ? itemService.getItemsByUserId(userId, from, size)
+                : itemService.getItemsByUserId(userId, PageCursor.decode(cursor, false), size);
+        PageCursor.writeNext(response, items, size, f -> PageCursor.of(f.getId()));
+        return items;
     }
 
     @GetMapping("/search")
-    public List<ItemDto> searchItemsByUserId(@RequestHeader(ContextShareIt.HEADER_USER_ID) Long userId,
+    public List<ItemDto> searchItemsByUserId(@SharerUserId Long userId,
                                            @RequestParam String text,
                                         @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
                                      @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
         return itemService.searchItemsForUserWithId(userId, text, from, size);
     }
 
+    @GetMapping("/suggest")
+    public List<String> suggestItemNames(@SharerUserId Long userId,
+                                         @RequestParam String prefix,
+                                         @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+        return itemService.suggestItemNames(userId, prefix, size);
+    }
+
     @PostMapping("/{itemId}/comment")
-    public CommentDto createComment(@RequestHeader(ContextShareIt.HEADER_USER_ID) Long userId,
+    public CommentDto createComment(@SharerUserId Long userId,
                                      @PathVariable Long itemId,
                                       @RequestBody @Valid CommentDtoShort commentDto) {
         return itemService.createComment(userId, itemId, commentDto, LocalDateTime.now());
     }
+
+    @GetMapping("/{itemId}/comments")
+    public List<CommentDto> getComments(@SharerUserId Long userId,
+                                        @PathVariable Long itemId,
+                                        @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                        @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                        @RequestParam(name = "cursor", required = false) String cursor,
+                                        HttpServletResponse response) {
+        final List<CommentDto> comments = cursor == null
+                ? itemService.getComments(userId, itemId, from, size)
+                : itemService.getComments(userId, itemId, PageCursor.decode(cursor, true), size);
+        PageCursor.writeNext(response, comments, size, f -> PageCursor.of(f.getCreated(), f.getId()));
+        return comments;
+    }
 }
@@ -0,0 +1,6 @@
+package ru.practicum.shareit.item.bulk;
+
+public enum ItemImportFormat {
+    JSON_LINES,
+    CSV
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.bulk;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+@Getter
+@AllArgsConstructor
+public class ItemImportRow {
+    private final int line;
+    private final ItemDto item;
+    private final String error;
+}
@@ -0,0 +1,155 @@
+package ru.practicum.shareit.item.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Reads items one line at a time from a JSON-lines or CSV body, so the payload is never held in
+ * memory as a whole. A CSV body starts with a header naming the columns name, description,
+ * available and requestId in any order; quoted values may contain commas and doubled quotes.
+ */
+public class ItemRowReader implements Closeable {
+    private final BufferedReader reader;
+
+    private final ItemImportFormat format;
+
+    private final ObjectMapper objectMapper;
+
+    private Map<String, Integer> columns;
+
+    private int line;
+
+    public ItemRowReader(ItemImportFormat format, Reader reader, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(reader);
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Returns the next non-blank row, or null at the end of the body.
+     */
+    public ItemImportRow next() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            line++;
+            if (text == null) {
+                return null;
+            }
+        } while (text.isBlank());
+
+        if (format == ItemImportFormat.JSON_LINES) {
+            return readJson(text);
+        }
+        if (columns == null) {
+            columns = readHeader(text);
+            return next();
+        }
+        return readCsv(text);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private ItemImportRow readJson(String text) {
+        try {
+            final ItemDto item = objectMapper.readValue(text, ItemDto.class);
+            if (item == null) {
+                return new ItemImportRow(line, null, "Строка должна содержать JSON-объект вещи");
+            }
+            return new ItemImportRow(line, item, null);
+        } catch (JsonProcessingException e) {
+            return new ItemImportRow(line, null, "Некорректный JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private Map<String, Integer> readHeader(String text) {
+        final Map<String, Integer> header = new HashMap<>();
+        final List<String> names = Optional.ofNullable(split(text)).orElse(List.of());
+        for (int i = 0; i < names.size(); i++) {
+            header.put(names.get(i).strip().toLowerCase(Locale.ROOT), i);
+        }
+        return header;
+    }
+
+    private ItemImportRow readCsv(String text) {
+        final List<String> values = split(text);
+        if (values == null) {
+            return new ItemImportRow(line, null, "Незакрытая кавычка в строке CSV");
+        }
+
+        final String available = value(values, "available");
+        if (available != null && !"true".equalsIgnoreCase(available) && !"false".equalsIgnoreCase(available)) {
+            return new ItemImportRow(line, null, "Поле available должно быть true или false: " + available);
+        }
+
+        final String requestId = value(values, "requestid");
+        final Long request;
+        try {
+            request = requestId == null ? null : Long.valueOf(requestId);
+        } catch (NumberFormatException e) {
+            return new ItemImportRow(line, null, "Поле requestId должно быть числом: " + requestId);
+        }
+
+        return new ItemImportRow(line, ItemDto.builder()
+                .name(value(values, "name"))
+                .description(value(values, "description"))
+                .available(available == null ? null : Boolean.valueOf(available))
+                .requestId(request)
+                .build(), null);
+    }
+
+    private String value(List<String> values, String column) {
+        final Integer index = columns.get(column);
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        final String value = values.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    private static List<String> split(String text) {
+        final List<String> values = new ArrayList<>();
+        final StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    value.append(c);
+                } else if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        values.add(value.toString());
+        return values;
+    }
+}
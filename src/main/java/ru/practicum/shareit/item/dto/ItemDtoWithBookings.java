@@ -6,7 +6,7 @@ import lombok.Setter;
 
 import ru.practicum.shareit.booking.dto.BookingDtoShort;
 
-import java.util.Set;
+import java.util.List;
 
 @Getter
 @Setter
@@ -18,5 +18,6 @@ public class ItemDtoWithBookings {
     private Boolean available;
     private BookingDtoShort lastBooking;
     private BookingDtoShort nextBooking;
-    private Set<CommentDto> comments;
+    private List<CommentDto> comments;
+    private Integer commentsCount;
 }
@@ -2,15 +2,12 @@ package ru.practicum.shareit.item.dto;
 
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.booking.dto.BookingDtoShort;
-import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 @Component
@@ -30,25 +27,19 @@ public class ItemMapper {
         return new ItemDtoShort(item.getId(), item.getName());
     }
 
-    public ItemDtoWithBookings toDtoWithBooking(Item item, List<Booking> bookings, LocalDateTime current) {
-        Optional<Booking> last =  bookings.stream()
-                                          .filter(f -> !f.getStart().isAfter(current))
-                                          .reduce((first, second) -> second);
-
-        Optional<Booking> next = bookings.stream()
-                                         .filter(f -> f.getStart().isAfter(current))
-                                         .findFirst();
-
-        Set<CommentDto> comments = item.getComments().stream().map(this::commentToDto).collect(Collectors.toSet());
+    public ItemDtoWithBookings toDtoWithBooking(Item item, List<Comment> newestComments, long commentsCount,
+                                                BookingDtoShort lastBooking, BookingDtoShort nextBooking) {
+        List<CommentDto> comments = newestComments.stream().map(this::commentToDto).collect(Collectors.toList());
 
         return ItemDtoWithBookings.builder()
                 .id(item.getId())
                 .name(item.getName())
                 .description(item.getDescription())
                 .available(item.getAvailable())
-                .lastBooking(toDtoBooking(last.orElse(null)))
-                .nextBooking(toDtoBooking(next.orElse(null)))
+                .lastBooking(lastBooking)
+                .nextBooking(nextBooking)
                 .comments(comments)
+                .commentsCount(Math.toIntExact(commentsCount))
                 .build();
     }
 
@@ -62,19 +53,6 @@ public class ItemMapper {
                 .build();
     }
 
-    private static BookingDtoShort toDtoBooking(Booking booking) {
-        if (booking == null) {
-            return null;
-        } else {
-            return BookingDtoShort.builder()
-                    .id(booking.getId())
-                    .start(booking.getStart())
-                    .end(booking.getEnd())
-                    .bookerId(booking.getBooker().getId())
-                    .build();
-        }
-    }
-
     public Comment commentFromDto(CommentDtoShort commentDto, Item item, User author, LocalDateTime created) {
         return Comment.builder()
                 .text(commentDto.getText())
@@ -85,6 +63,10 @@ public class ItemMapper {
     }
 
     public CommentDto commentToDto(Comment comment) {
-        return new CommentDto(comment.getId(), comment.getText(), comment.getAuthor().getName(), comment.getCreated());
+        return commentToDto(comment, comment.getAuthor().getName());
+    }
+
+    public CommentDto commentToDto(Comment comment, String authorName) {
+        return new CommentDto(comment.getId(), comment.getText(), authorName, comment.getCreated());
     }
 }
@@ -1,7 +1,43 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.item.id = :itemId " +
+           "ORDER BY c.created DESC, c.id DESC")
+    List<Comment> findByItemIdNewestFirst(Long itemId, Pageable page);
+
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.item.id = :itemId AND " +
+           "(c.created < :cursorCreated OR (c.created = :cursorCreated AND c.id < :cursorId)) " +
+           "ORDER BY c.created DESC, c.id DESC")
+    List<Comment> seekByItemIdNewestFirst(Long itemId, LocalDateTime cursorCreated, Long cursorId, Pageable page);
+
+    /**
+     * Up to {@code size} newest comments of every item in one statement; authors are batch-fetched.
+     */
+    @Query(value = "SELECT * FROM (SELECT c.*, ROW_NUMBER() OVER (PARTITION BY c.item_id " +
+                   "ORDER BY c.created DESC, c.id DESC) AS rn FROM items_comments AS c " +
+                   "WHERE c.item_id IN (:itemIds)) AS t " +
+                   "WHERE t.rn <= :size ORDER BY t.item_id, t.created DESC, t.id DESC",
+           nativeQuery = true)
+    List<Comment> findNewestByItemIdIn(Collection<Long> itemIds, int size);
+
+    long countByItemId(Long itemId);
+
+    @Query("SELECT c.item.id AS itemId, COUNT(c) AS count FROM Comment c " +
+           "WHERE c.item.id IN :itemIds GROUP BY c.item.id")
+    List<ItemCommentsCount> countByItemIdIn(Collection<Long> itemIds);
+
+    interface ItemCommentsCount {
+        Long getItemId();
+
+        long getCount();
+    }
 }
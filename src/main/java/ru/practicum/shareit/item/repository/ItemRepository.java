@@ -1,35 +1,46 @@
 package ru.practicum.shareit.item.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.QueryHint;
 import java.util.List;
-import java.util.Optional;
 import java.util.Set;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
-    @Query(value = "SELECT * FROM items " +
+    @Query(value = "SELECT id FROM items " +
+                   "WHERE available = true " +
+                   "and (LOWER(name) LIKE :pattern or LOWER(description) LIKE :pattern) " +
+                   "ORDER BY id",
+            nativeQuery = true)
+    List<Long> findIdsByAvailableTrue_And_ContainingText(String pattern, Pageable page);
+
+    @Query(value = "SELECT id FROM items " +
                    "WHERE available = true " +
-                   "and (LOWER(name) LIKE LOWER(CONCAT('%', :text,'%')) " +
-                   "or LOWER(description) LIKE LOWER(CONCAT('%', :text,'%')))",
+                   "and (name ILIKE :pattern or description ILIKE :pattern) " +
+                   "ORDER BY id",
             nativeQuery = true)
-    Page<Item> findByAvailableTrue_And_ContainingText(String text, Pageable page);
+    List<Long> findIdsByAvailableTrue_And_TrigramText(String pattern, Pageable page);
+
+    @Query("SELECT i.id FROM Item i WHERE i.owner.id = :ownerId")
+    List<Long> findIdsByOwnerId(Long ownerId, Pageable page);
 
-    @EntityGraph("item-comment-graph")
-    Page<Item> findByOwner_Id(Long ownerId, Pageable page);
+    List<Item> findByOwner_Id(Long ownerId);
 
-    @EntityGraph("item-comment-graph")
-    @Override
-    Optional<Item> findById(Long aLong);
+    @Query("SELECT i.id FROM Item i WHERE i.owner.id = :ownerId AND i.id > :cursorId ORDER BY i.id")
+    List<Long> seekIdsByOwnerId(Long ownerId, Long cursorId, Pageable page);
 
     @Query(value = "SELECT * FROM items " +
                    "WHERE request_id in (:requestIds)",
             nativeQuery = true)
     List<Item> findByRequest_Ids(Set<Long> requestIds);
 
+    @QueryHints({@QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "true"),
+                 @QueryHint(name = org.hibernate.annotations.QueryHints.CACHE_REGION,
+                            value = "shareit.query.items-by-request")})
     List<Item> findByRequest_Id(Long requestId);
 }
\ No newline at end of file
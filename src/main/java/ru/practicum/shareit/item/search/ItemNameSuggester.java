@@ -0,0 +1,137 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.transaction.AfterCommit;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Name completions for the search box, served from {@link ItemNameTrie} over available items.
+ * Names shared by more items come first.
+ */
+@Slf4j
+@Component
+public class ItemNameSuggester {
+    private static final int REBUILD_CHUNK = 1000;
+
+    private final Map<Long, String> itemKeys = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final ItemRepository itemRepository;
+
+    private final ItemNameTrie trie;
+
+    @Getter
+    private final int topK;
+
+    public ItemNameSuggester(ItemRepository itemRepository,
+                             @Value("${shareit.suggest.top-k:10}") int topK) {
+        this.itemRepository = itemRepository;
+        this.trie = new ItemNameTrie(topK);
+        this.topK = topK;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            trie.clear();
+            itemKeys.clear();
+
+            Page<Item> chunk = itemRepository.findAll(PageRequest.of(0, REBUILD_CHUNK, Sort.by("id")));
+            chunk.forEach(f -> replace(f.getId(), keyOf(f), f.getName()));
+            while (chunk.hasNext()) {
+                chunk = itemRepository.findAll(chunk.nextPageable());
+                chunk.forEach(f -> replace(f.getId(), keyOf(f), f.getName()));
+            }
+            log.info("Словарь подсказок названий вещей построен, вещей: {}", itemKeys.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void update(Item item) {
+        final Long itemId = item.getId();
+        final String key = keyOf(item);
+        final String name = item.getName();
+
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                replace(itemId, key, name);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Forgets items deleted without going through the item service, e.g. by ON DELETE CASCADE.
+     */
+    public void removeAll(Collection<Long> itemIds) {
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                itemIds.forEach(itemId -> replace(itemId, null, null));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public List<String> suggest(String prefix, int size) {
+        final String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            return trie.complete(key, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void replace(Long itemId, String key, String name) {
+        final String previous = key == null ? itemKeys.remove(itemId) : itemKeys.put(itemId, key);
+        if (Objects.equals(previous, key)) {
+            return;
+        }
+        if (previous != null) {
+            trie.remove(previous);
+        }
+        if (key != null) {
+            trie.add(key, name.strip());
+        }
+    }
+
+    private static String keyOf(Item item) {
+        if (!Boolean.TRUE.equals(item.getAvailable()) || item.getName() == null) {
+            return null;
+        }
+        final String key = normalize(item.getName());
+        return key.isEmpty() ? null : key;
+    }
+
+    private static String normalize(String text) {
+        return SearchTokenizer.normalize(text).strip().replaceAll("\\s+", " ");
+    }
+}
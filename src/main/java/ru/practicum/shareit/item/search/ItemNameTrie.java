@@ -0,0 +1,155 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Radix trie of normalized item names. Every node keeps the best completions of its subtree,
+ * so a lookup costs one walk down the prefix regardless of how many names share it.
+ */
+final class ItemNameTrie {
+    private static final Comparator<Node> BY_POPULARITY = Comparator.<Node>comparingInt(f -> f.count)
+                                                                    .reversed()
+                                                                    .thenComparing(f -> f.key);
+
+    private final int capacity;
+
+    private final Node root = new Node("");
+
+    ItemNameTrie(int capacity) {
+        this.capacity = capacity;
+    }
+
+    void add(String key, String name) {
+        add(root, key, 0, name);
+    }
+
+    void remove(String key) {
+        remove(root, key, 0);
+    }
+
+    void clear() {
+        root.children.clear();
+        root.top = List.of();
+    }
+
+    List<String> complete(String prefix, int limit) {
+        Node node = root;
+        int from = 0;
+        while (from < prefix.length()) {
+            final Node child = node.children.get(prefix.charAt(from));
+            if (child == null) {
+                return List.of();
+            }
+            if (prefix.length() - from <= child.label.length()) {
+                return child.label.startsWith(prefix.substring(from)) ? names(child, limit) : List.of();
+            }
+            if (!prefix.startsWith(child.label, from)) {
+                return List.of();
+            }
+            from += child.label.length();
+            node = child;
+        }
+        return names(node, limit);
+    }
+
+    private void add(Node node, String key, int from, String name) {
+        if (from == key.length()) {
+            if (node.count++ == 0) {
+                node.key = key;
+                node.name = name;
+            }
+        } else {
+            final char first = key.charAt(from);
+            Node child = node.children.get(first);
+            if (child == null) {
+                child = new Node(key.substring(from));
+                node.children.put(first, child);
+            } else {
+                final int common = commonPrefix(child.label, key, from);
+                if (common < child.label.length()) {
+                    final Node middle = new Node(child.label.substring(0, common));
+                    child.label = child.label.substring(common);
+                    middle.children.put(child.label.charAt(0), child);
+                    node.children.put(first, middle);
+                    child = middle;
+                }
+            }
+            add(child, key, from + child.label.length(), name);
+        }
+        refresh(node);
+    }
+
+    private void remove(Node node, String key, int from) {
+        if (from == key.length()) {
+            if (node.count > 0 && --node.count == 0) {
+                node.key = null;
+                node.name = null;
+            }
+        } else {
+            final char first = key.charAt(from);
+            final Node child = node.children.get(first);
+            if (child == null || !key.startsWith(child.label, from)) {
+                return;
+            }
+            remove(child, key, from + child.label.length());
+
+            if (child.count == 0 && child.children.isEmpty()) {
+                node.children.remove(first);
+            } else if (child.count == 0 && child.children.size() == 1) {
+                final Node grandChild = child.children.values().iterator().next();
+                grandChild.label = child.label + grandChild.label;
+                node.children.put(first, grandChild);
+            }
+        }
+        refresh(node);
+    }
+
+    private void refresh(Node node) {
+        final List<Node> candidates = new ArrayList<>();
+        if (node.count > 0) {
+            candidates.add(node);
+        }
+        node.children.values().forEach(f -> candidates.addAll(f.top));
+        candidates.sort(BY_POPULARITY);
+        node.top = List.copyOf(candidates.subList(0, Math.min(capacity, candidates.size())));
+    }
+
+    private static List<String> names(Node node, int limit) {
+        return node.top.stream()
+                       .limit(limit)
+                       .map(f -> f.name)
+                       .collect(Collectors.toList());
+    }
+
+    private static int commonPrefix(String label, String key, int from) {
+        final int max = Math.min(label.length(), key.length() - from);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(from + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new TreeMap<>();
+
+        private String label;
+
+        private String key;
+
+        private String name;
+
+        private int count;
+
+        private List<Node> top = List.of();
+
+        private Node(String label) {
+            this.label = label;
+        }
+    }
+}
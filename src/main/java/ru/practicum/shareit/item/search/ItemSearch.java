@@ -0,0 +1,27 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Search over available items, selected by {@code shareit.search.mode}.
+ */
+public interface ItemSearch {
+    List<Long> search(String text, int from, int size);
+
+    /**
+     * Whether an available item with the given name and description would be found by the text.
+     */
+    boolean matches(String text, String name, String description);
+
+    default void update(Item item) {
+    }
+
+    /**
+     * Forgets items deleted without going through the item service, e.g. by ON DELETE CASCADE.
+     */
+    default void remove(Collection<Long> itemIds) {
+    }
+}
@@ -0,0 +1,127 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.transaction.AfterCommit;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * LRU cache of search result pages in front of {@link ItemSearch}. A change of an item evicts only
+ * the pages whose text matches the item before or after the change; a page computed concurrently
+ * with an eviction is not stored.
+ */
+@Component
+public class ItemSearchCache {
+    private final ItemSearch itemSearch;
+
+    private final Map<Key, List<Long>> pages;
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    private long version;
+
+    public ItemSearchCache(ItemSearch itemSearch,
+                           MeterRegistry meterRegistry,
+                           @Value("${shareit.search.cache.size:1000}") int maxSize) {
+        this.itemSearch = itemSearch;
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, List<Long>> eldest) {
+                return size() > maxSize;
+            }
+        };
+        this.hits = meterRegistry.counter("shareit.search.cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("shareit.search.cache.requests", "result", "miss");
+        meterRegistry.gauge("shareit.search.cache.size", pages, this::size);
+    }
+
+    public List<Long> search(String text, int from, int size) {
+        final Key key = new Key(text.strip().toLowerCase(Locale.ROOT), from, size);
+        final long startVersion;
+        synchronized (this) {
+            final List<Long> cached = pages.get(key);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+            startVersion = version;
+        }
+        misses.increment();
+
+        final List<Long> ids = List.copyOf(itemSearch.search(text, from, size));
+        synchronized (this) {
+            if (version == startVersion) {
+                pages.put(key, ids);
+            }
+        }
+        return ids;
+    }
+
+    public void evict(Item item) {
+        evict(item.getName(), item.getDescription(), item.getAvailable());
+    }
+
+    public void evict(String name, String description, Boolean available) {
+        if (!Boolean.TRUE.equals(available)) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                version++;
+                pages.keySet().removeIf(key -> itemSearch.matches(key.text, name, description));
+            }
+        });
+    }
+
+    public void evict(Collection<Item> items) {
+        final List<Item> available = items.stream()
+                .filter(f -> Boolean.TRUE.equals(f.getAvailable()))
+                .collect(Collectors.toList());
+        if (available.isEmpty()) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                version++;
+                pages.keySet().removeIf(key -> available.stream()
+                        .anyMatch(f -> itemSearch.matches(key.text, f.getName(), f.getDescription())));
+            }
+        });
+    }
+
+    public void evictAll() {
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                version++;
+                pages.clear();
+            }
+        });
+    }
+
+    private synchronized int size(Map<Key, List<Long>> pages) {
+        return pages.size();
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class Key {
+        private final String text;
+
+        private final int from;
+
+        private final int size;
+    }
+}
@@ -0,0 +1,184 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.transaction.AfterCommit;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Inverted index over names and descriptions of available items. A query matches an item when
+ * every query token is a prefix of one of its terms; name hits and whole-word hits rank higher.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "index", matchIfMissing = true)
+public class ItemSearchIndex implements ItemSearch {
+    private static final int NAME_WEIGHT = 3;
+
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private static final int EXACT_TERM_FACTOR = 2;
+
+    private static final int REBUILD_CHUNK = 1000;
+
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+
+    private final Map<Long, Map<String, Integer>> itemTerms = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final ItemRepository itemRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            itemTerms.clear();
+
+            Page<Item> chunk = itemRepository.findAll(PageRequest.of(0, REBUILD_CHUNK, Sort.by("id")));
+            chunk.forEach(this::apply);
+            while (chunk.hasNext()) {
+                chunk = itemRepository.findAll(chunk.nextPageable());
+                chunk.forEach(this::apply);
+            }
+            log.info("Поисковый индекс вещей построен, проиндексировано вещей: {}", itemTerms.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void update(Item item) {
+        final Long itemId = item.getId();
+        final Map<String, Integer> terms = Boolean.TRUE.equals(item.getAvailable()) ? termsOf(item) : Map.of();
+
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                replace(itemId, terms);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Override
+    public void remove(Collection<Long> itemIds) {
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                itemIds.forEach(itemId -> replace(itemId, Map.of()));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Override
+    public List<Long> search(String text, int from, int size) {
+        final List<String> tokens = List.copyOf(new LinkedHashSet<>(SearchTokenizer.tokenize(text)));
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Integer> scores = null;
+        lock.readLock().lock();
+        try {
+            for (String token : tokens) {
+                final Map<Long, Integer> tokenScores = scoreToken(token);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    scores.replaceAll((id, score) -> score + tokenScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return scores.entrySet()
+                     .stream()
+                     .sorted(Map.Entry.<Long, Integer>comparingByValue(Comparator.reverseOrder())
+                                      .thenComparing(Map.Entry.comparingByKey()))
+                     .skip(from)
+                     .limit(size)
+                     .map(Map.Entry::getKey)
+                     .collect(Collectors.toList());
+    }
+
+    @Override
+    public boolean matches(String text, String name, String description) {
+        final List<String> terms = SearchTokenizer.tokenize(name);
+        terms.addAll(SearchTokenizer.tokenize(description));
+        final List<String> tokens = SearchTokenizer.tokenize(text);
+
+        return !tokens.isEmpty()
+                && tokens.stream().allMatch(token -> terms.stream().anyMatch(f -> f.startsWith(token)));
+    }
+
+    private Map<Long, Integer> scoreToken(String token) {
+        final Map<Long, Integer> scores = new HashMap<>();
+        postings.subMap(token, true, token + Character.MAX_VALUE, false)
+                .forEach((term, items) -> {
+                    final int factor = term.equals(token) ? EXACT_TERM_FACTOR : 1;
+                    items.forEach((id, weight) -> scores.merge(id, weight * factor, Integer::sum));
+                });
+        return scores;
+    }
+
+    private void apply(Item item) {
+        replace(item.getId(), Boolean.TRUE.equals(item.getAvailable()) ? termsOf(item) : Map.of());
+    }
+
+    private void replace(Long itemId, Map<String, Integer> terms) {
+        final Map<String, Integer> previous = itemTerms.remove(itemId);
+        if (previous != null) {
+            previous.keySet().forEach(term -> {
+                final Map<Long, Integer> items = postings.get(term);
+                items.remove(itemId);
+                if (items.isEmpty()) {
+                    postings.remove(term);
+                }
+            });
+        }
+        if (terms.isEmpty()) {
+            return;
+        }
+        itemTerms.put(itemId, terms);
+        terms.forEach((term, weight) -> postings.computeIfAbsent(term, f -> new HashMap<>()).put(itemId, weight));
+    }
+
+    private static Map<String, Integer> termsOf(Item item) {
+        final Map<String, Integer> terms = new HashMap<>();
+        SearchTokenizer.tokenize(item.getName()).forEach(term -> terms.merge(term, NAME_WEIGHT, Integer::sum));
+        SearchTokenizer.tokenize(item.getDescription())
+                       .forEach(term -> terms.merge(term, DESCRIPTION_WEIGHT, Integer::sum));
+        return terms;
+    }
+}
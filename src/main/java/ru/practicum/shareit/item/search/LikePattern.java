@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Locale;
+
+final class LikePattern {
+    private LikePattern() {
+    }
+
+    static boolean matches(String text, String name, String description) {
+        final String needle = text.trim().toLowerCase(Locale.ROOT);
+        return name != null && name.toLowerCase(Locale.ROOT).contains(needle)
+                || description != null && description.toLowerCase(Locale.ROOT).contains(needle);
+    }
+
+    static String containing(String text) {
+        final String escaped = text.trim()
+                                   .toLowerCase(Locale.ROOT)
+                                   .replace("\\", "\\\\")
+                                   .replace("%", "\\%")
+                                   .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+/**
+ * Substring search on PostgreSQL served by the pg_trgm GIN indexes from schema-postgres.sql.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "trigram")
+public class TrigramItemSearch implements ItemSearch {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Long> search(String text, int from, int size) {
+        return itemRepository.findIdsByAvailableTrue_And_TrigramText(LikePattern.containing(text),
+                                                                    PageRequest.of(from / size, size));
+    }
+
+    @Override
+    public boolean matches(String text, String name, String description) {
+        return LikePattern.matches(text, name, description);
+    }
+}
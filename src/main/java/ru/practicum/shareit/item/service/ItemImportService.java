@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.item.bulk.ItemImportFormat;
+import ru.practicum.shareit.item.dto.ItemImportReport;
+
+import java.io.Reader;
+
+public interface ItemImportService {
+    ItemImportReport importItems(long userId, ItemImportFormat format, Reader body);
+}
@@ -0,0 +1,203 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.bulk.ItemImportFormat;
+import ru.practicum.shareit.item.bulk.ItemImportRow;
+import ru.practicum.shareit.item.bulk.ItemRowReader;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportReport;
+import ru.practicum.shareit.item.dto.ItemImportResult;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemNameSuggester;
+import ru.practicum.shareit.item.search.ItemSearch;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.cache.UserExistenceCache;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.validation.Create;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Creates items from a streamed body. Rows are validated one by one and saved in transactions of
+ * {@code shareit.items.import.batch-size} rows; a failed batch does not roll back earlier ones.
+ */
+@Slf4j
+@Service
+public class ItemImportServiceImpl implements ItemImportService {
+    private final ItemRepository itemRepository;
+
+    private final UserRepository userRepository;
+
+    private final UserExistenceCache userCache;
+
+    private final ItemRequestRepository requestRepository;
+
+    private final ItemMapper itemMapper;
+
+    private final ItemSearch itemSearch;
+
+    private final ItemNameSuggester nameSuggester;
+
+    private final ItemSearchCache searchCache;
+
+    private final Validator validator;
+
+    private final ObjectMapper objectMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+
+    public ItemImportServiceImpl(ItemRepository itemRepository,
+                                 UserRepository userRepository,
+                                 UserExistenceCache userCache,
+                                 ItemRequestRepository requestRepository,
+                                 ItemMapper itemMapper,
+                                 ItemSearch itemSearch,
+                                 ItemNameSuggester nameSuggester,
+                                 ItemSearchCache searchCache,
+                                 Validator validator,
+                                 ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${shareit.items.import.batch-size:500}") int batchSize) {
+        this.itemRepository = itemRepository;
+        this.userRepository = userRepository;
+        this.userCache = userCache;
+        this.requestRepository = requestRepository;
+        this.itemMapper = itemMapper;
+        this.itemSearch = itemSearch;
+        this.nameSuggester = nameSuggester;
+        this.searchCache = searchCache;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public ItemImportReport importItems(long userId, ItemImportFormat format, Reader body) {
+        userCache.requireExists(userId);
+
+        final List<ItemImportResult> results = new ArrayList<>();
+        final List<ItemImportRow> batch = new ArrayList<>(batchSize);
+
+        try (ItemRowReader rows = new ItemRowReader(format, body, objectMapper)) {
+            ItemImportRow row;
+            while ((row = rows.next()) != null) {
+                final String error = row.getError() != null ? row.getError() : validate(row.getItem());
+                if (error != null) {
+                    results.add(ItemImportResult.failed(row.getLine(), error));
+                    continue;
+                }
+                batch.add(row);
+                if (batch.size() == batchSize) {
+                    results.addAll(saveBatch(userId, batch));
+                    batch.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!batch.isEmpty()) {
+            results.addAll(saveBatch(userId, batch));
+        }
+
+        results.sort(Comparator.comparingInt(ItemImportResult::getLine));
+        final int created = (int) results.stream().filter(f -> f.getId() != null).count();
+        log.info("Импорт вещей пользователя с id: {}, создано: {}, с ошибками: {}",
+                 userId, created, results.size() - created);
+
+        return new ItemImportReport(created, results.size() - created, results);
+    }
+
+    private String validate(ItemDto itemDto) {
+        final Set<ConstraintViolation<ItemDto>> violations = validator.validate(itemDto, Create.class);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                         .map(f -> f.getPropertyPath() + " " + f.getMessage())
+                         .sorted()
+                         .collect(Collectors.joining("; "));
+    }
+
+    private List<ItemImportResult> saveBatch(long userId, List<ItemImportRow> batch) {
+        try {
+            return transactionTemplate.execute(status -> {
+                final User owner = userRepository.getReferenceById(userId);
+                final Map<Long, ItemRequest> requests = requestRepository.findAllById(
+                                batch.stream()
+                                     .map(f -> f.getItem().getRequestId())
+                                     .filter(Objects::nonNull)
+                                     .collect(Collectors.toSet()))
+                        .stream()
+                        .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+
+                final List<ItemImportResult> saved = new ArrayList<>(batch.size());
+                final List<ItemImportRow> rows = new ArrayList<>(batch.size());
+                for (ItemImportRow row : batch) {
+                    final Long requestId = row.getItem().getRequestId();
+                    if (requestId != null && !requests.containsKey(requestId)) {
+                        saved.add(ItemImportResult.failed(row.getLine(),
+                                                          String.format("Запрос с id: %s не найден", requestId)));
+                    } else {
+                        rows.add(row);
+                    }
+                }
+                if (rows.isEmpty()) {
+                    return saved;
+                }
+
+                final List<Item> items = rows.stream()
+                                              .map(f -> {
+                                                  f.getItem().setId(null);
+                                                  final Item item = itemMapper.fromDto(owner, f.getItem());
+                                                  item.setRequest(requests.get(f.getItem().getRequestId()));
+                                                  return item;
+                                              })
+                                              .collect(Collectors.toList());
+
+                itemRepository.saveAll(items);
+                items.forEach(f -> {
+                    itemSearch.update(f);
+                    nameSuggester.update(f);
+                });
+                searchCache.evictAll();
+
+                for (int i = 0; i < items.size(); i++) {
+                    saved.add(ItemImportResult.created(rows.get(i).getLine(), items.get(i).getId()));
+                }
+                return saved;
+            });
+        } catch (DataAccessException e) {
+            log.error("Не удалось сохранить пакет вещей {}", e.getMessage(), e);
+            return batch.stream()
+                        .map(f -> ItemImportResult.failed(f.getLine(), "Не удалось сохранить: "
+                                + e.getMostSpecificCause().getMessage()))
+                        .collect(Collectors.toList());
+        }
+    }
+}
@@ -4,6 +4,7 @@ import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentDtoShort;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoWithBookings;
+import ru.practicum.shareit.pagination.PageCursor;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -17,7 +18,15 @@ public interface ItemService {
 
     List<ItemDtoWithBookings> getItemsByUserId(long userId, int from, int size);
 
+    List<ItemDtoWithBookings> getItemsByUserId(long userId, PageCursor cursor, int size);
+
     List<ItemDto> searchItemsForUserWithId(long userId, String text, int from, int size);
 
+    List<String> suggestItemNames(long userId, String prefix, int size);
+
     CommentDto createComment(long userId, long itemId, CommentDtoShort commentDto, LocalDateTime current);
+
+    List<CommentDto> getComments(long userId, long itemId, int from, int size);
+
+    List<CommentDto> getComments(long userId, long itemId, PageCursor cursor, int size);
 }
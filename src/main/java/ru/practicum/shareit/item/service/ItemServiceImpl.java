@@ -1,12 +1,15 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-import ru.practicum.shareit.booking.model.Booking;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.model.StatusBooking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.summary.ItemBookingSummary;
 import ru.practicum.shareit.exeption.EntityNotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentDtoShort;
@@ -19,51 +22,82 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemNameSuggester;
+import ru.practicum.shareit.item.search.ItemSearch;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.cache.UserExistenceCache;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.validation.ValidationException;
 import java.time.LocalDateTime;
-import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
+    /**
+     * Item views embed only this many newest comments next to commentsCount;
+     * the rest are paged through /items/{itemId}/comments. Comments are counted
+     * only for items that fill the preview.
+     */
+    static final int COMMENTS_PREVIEW_SIZE = 10;
+
     private final ItemRepository itemRepository;
 
     private final UserRepository userRepository;
 
+    private final UserExistenceCache userCache;
+
     private final BookingRepository bookingRepository;
 
+    private final ItemBookingSummary bookingSummary;
+
     private final CommentRepository commentRepository;
 
     private final ItemRequestRepository requestRepository;
 
     private final ItemMapper itemMapper;
 
+    private final ItemSearch itemSearch;
+
+    private final ItemNameSuggester nameSuggester;
+
+    private final ItemSearchCache searchCache;
+
     @Override
     public ItemDto createItem(long userId, ItemDto itemDto) {
-        User owner = findUserById(userId);
+        final Long requestId = itemDto.getRequestId();
 
         itemDto.setId(null);
 
-        final Item item = itemMapper.fromDto(owner, itemDto);
+        final Item item = itemMapper.fromDto(userRepository.getReferenceById(userId), itemDto);
 
-        if (itemDto.getRequestId() != null) {
-            Optional<ItemRequest> itemRequest = requestRepository.findById(itemDto.getRequestId());
-            itemRequest.ifPresent(item::setRequest);
+        if (requestId != null) {
+            item.setRequest(requestRepository.getReferenceById(requestId));
         }
 
-        final Item newItem = itemRepository.save(item);
+        final Item newItem;
+        try {
+            newItem = itemRepository.saveAndFlush(item);
+        } catch (DataIntegrityViolationException e) {
+            existsUserById(userId);
+            if (requestId != null && !requestRepository.existsById(requestId)) {
+                throw new EntityNotFoundException(requestId, ItemRequest.class);
+            }
+            throw e;
+        }
+        itemSearch.update(newItem);
+        nameSuggester.update(newItem);
+        searchCache.evict(newItem);
 
         return itemMapper.toDto(newItem);
     }
@@ -79,6 +113,10 @@ public class ItemServiceImpl implements ItemService {
         if (userId != updateItem.getOwner().getId()) {
             throw new ItemBelongsAnotherOwner();
         }
+        final String previousName = updateItem.getName();
+        final String previousDescription = updateItem.getDescription();
+        final Boolean previousAvailable = updateItem.getAvailable();
+
         if (name != null && !name.isBlank()) {
             updateItem.setName(name);
         }
@@ -90,97 +128,168 @@ public class ItemServiceImpl implements ItemService {
         }
 
         itemRepository.save(updateItem);
+        itemSearch.update(updateItem);
+        nameSuggester.update(updateItem);
+        searchCache.evict(previousName, previousDescription, previousAvailable);
+        searchCache.evict(updateItem);
 
         return itemMapper.toDto(updateItem);
     }
 
     @Override
     public ItemDtoWithBookings getItemByIdForUserId(long userId, long itemId) {
-        List<Booking> bookings;
-        LocalDateTime current = LocalDateTime.now();
-
         existsUserById(userId);
 
         Item item = findItemById(itemId);
-        if (userId == item.getOwner().getId()) {
-            bookings = bookingRepository.findByItemsBooking(Stream.of(itemId).collect(Collectors.toSet()),
-                                                             String.valueOf(StatusBooking.APPROVED));
-        } else {
-            bookings = Collections.emptyList();
+        List<Comment> comments = commentRepository.findByItemIdNewestFirst(itemId,
+                                                                           PageRequest.ofSize(COMMENTS_PREVIEW_SIZE));
+        long commentsCount = comments.size() < COMMENTS_PREVIEW_SIZE ? comments.size()
+                : commentRepository.countByItemId(itemId);
+        if (userId != item.getOwner().getId()) {
+            return itemMapper.toDtoWithBooking(item, comments, commentsCount, null, null);
         }
 
-        return itemMapper.toDtoWithBooking(item,bookings,current);
+        return toDtoWithBookings(List.of(item), Map.of(itemId, comments), Map.of(itemId, commentsCount)).get(0);
     }
 
     @Override
     public List<ItemDtoWithBookings> getItemsByUserId(long userId, int from, int size) {
-        Pageable pageable = PageRequest.of(from > 0 ? from / size : 0, size);
+        Pageable pageable = PageRequest.of(from > 0 ? from / size : 0, size, Sort.by("id"));
 
-        LocalDateTime current = LocalDateTime.now();
+        return itemsToDtoWithBookings(itemRepository.findIdsByOwnerId(userId, pageable));
+    }
 
-        Map<Long, Item>  itemIds = itemRepository.findByOwner_Id(userId, pageable)
-                                                 .stream()
-                                                 .collect(Collectors.toMap(Item::getId, Function.identity()));
+    @Override
+    public List<ItemDtoWithBookings> getItemsByUserId(long userId, PageCursor cursor, int size) {
+        return itemsToDtoWithBookings(itemRepository.seekIdsByOwnerId(userId, cursor.getId(), PageRequest.ofSize(size)));
+    }
+
+    private List<ItemDtoWithBookings> itemsToDtoWithBookings(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
 
-        Map<Long, List<Booking>> itemBookings = bookingRepository.findByItemsBooking(itemIds.keySet(),
-                                                                   String.valueOf(StatusBooking.APPROVED))
+        final Map<Long, Item> byId = itemRepository.findAllById(ids)
+                                                   .stream()
+                                                   .collect(Collectors.toMap(Item::getId, Function.identity()));
+        final List<Item> items = ids.stream()
+                                    .map(byId::get)
+                                    .filter(Objects::nonNull)
+                                    .collect(Collectors.toList());
+        final Map<Long, List<Comment>> comments = commentRepository.findNewestByItemIdIn(ids, COMMENTS_PREVIEW_SIZE)
+                                                                   .stream()
+                                                                   .collect(Collectors.groupingBy(f -> f.getItem().getId()));
+        final List<Long> previewFilled = comments.entrySet()
                                                  .stream()
-                                                 .collect(Collectors.groupingBy(f -> f.getItem().getId()));
+                                                 .filter(f -> f.getValue().size() == COMMENTS_PREVIEW_SIZE)
+                                                 .map(Map.Entry::getKey)
+                                                 .collect(Collectors.toList());
+        final Map<Long, Long> commentsCounts = previewFilled.isEmpty() ? Map.of()
+                : commentRepository.countByItemIdIn(previewFilled)
+                                   .stream()
+                                   .collect(Collectors.toMap(CommentRepository.ItemCommentsCount::getItemId,
+                                                             CommentRepository.ItemCommentsCount::getCount));
+
+        return toDtoWithBookings(items, comments, commentsCounts);
+    }
+
+    private List<ItemDtoWithBookings> toDtoWithBookings(List<Item> items, Map<Long, List<Comment>> comments,
+                                                        Map<Long, Long> commentsCounts) {
+        LocalDateTime current = LocalDateTime.now();
 
-        return itemIds.entrySet()
-                      .stream()
-                      .map(f -> itemMapper.toDtoWithBooking(f.getValue(),
-                                  itemBookings.getOrDefault(f.getKey(), Collections.emptyList()), current))
-                      .collect(Collectors.toList());
+        return items.stream()
+                    .map(f -> {
+                        final List<Comment> newest = comments.getOrDefault(f.getId(), List.of());
+                        return itemMapper.toDtoWithBooking(f, newest,
+                                                           commentsCounts.getOrDefault(f.getId(), (long) newest.size()),
+                                                           bookingSummary.getLastBooking(f.getId(), current),
+                                                           bookingSummary.getNextBooking(f.getId(), current));
+                    })
+                    .collect(Collectors.toList());
     }
 
     @Override
     public List<ItemDto> searchItemsForUserWithId(long userId, String text, int from, int size) {
-        PageRequest page = PageRequest.of(from > 0 ? from / size : 0, size);
-
         existsUserById(userId);
 
         if (text.isBlank()) {
             return List.of();
         }
 
-        return (itemRepository.findByAvailableTrue_And_ContainingText(text, page)
-                              .stream()
-                              .map(itemMapper::toDto)
-                              .collect(Collectors.toList()));
+        final List<Long> ids = searchCache.search(text, from > 0 ? from / size * size : 0, size);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        final Map<Long, Item> items = itemRepository.findAllById(ids)
+                                                    .stream()
+                                                    .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        return ids.stream()
+                  .map(items::get)
+                  .filter(Objects::nonNull)
+                  .map(itemMapper::toDto)
+                  .collect(Collectors.toList());
     }
 
     @Override
-    public CommentDto createComment(long userId, long itemId, CommentDtoShort commentDto, LocalDateTime current) {
-        User author = findUserById(userId);
-        Item item = findItemById(itemId);
+    public List<String> suggestItemNames(long userId, String prefix, int size) {
+        existsUserById(userId);
+        if (size > nameSuggester.getTopK()) {
+            throw new ValidationException(String.format("size должен быть не больше %d", nameSuggester.getTopK()));
+        }
 
+        return nameSuggester.suggest(prefix, size);
+    }
 
-        if (!bookingRepository.existsByBookerIdAndItemIdAndEndBeforeAndStatus(userId, itemId,
-                                current, StatusBooking.APPROVED)) {
+    @Override
+    @Transactional
+    public CommentDto createComment(long userId, long itemId, CommentDtoShort commentDto, LocalDateTime current) {
+        final Optional<String> authorName = bookingRepository.findBookerNameByBookerIdAndItemIdAndEndBeforeAndStatus(
+                userId, itemId, current, StatusBooking.APPROVED);
+        if (authorName.isEmpty()) {
 
+            existsUserById(userId);
+            if (!itemRepository.existsById(itemId)) {
+                throw new EntityNotFoundException(itemId, Item.class);
+            }
             throw new ItemUnavailable(itemId);
 
         } else {
 
+            final User author = userRepository.getReferenceById(userId);
+            final Item item = itemRepository.getReferenceById(itemId);
+
             Comment comment = commentRepository.save(itemMapper.commentFromDto(commentDto, item, author, current));
 
-            if (item.getComments() == null) {
-                Set<Comment> comments = new HashSet<>();
-                item.setComments(comments);
-            }
+            return  itemMapper.commentToDto(comment, authorName.get());
+        }
+    }
 
-            item.getComments().add(comment);
+    @Override
+    public List<CommentDto> getComments(long userId, long itemId, int from, int size) {
+        existsUserById(userId);
 
-            itemRepository.save(item);
+        return commentsToDto(itemId, commentRepository.findByItemIdNewestFirst(itemId,
+                                                            PageRequest.of(from > 0 ? from / size : 0, size)));
+    }
 
-            return  itemMapper.commentToDto(comment);
-        }
+    @Override
+    public List<CommentDto> getComments(long userId, long itemId, PageCursor cursor, int size) {
+        existsUserById(userId);
+
+        return commentsToDto(itemId, commentRepository.seekByItemIdNewestFirst(itemId, cursor.getPosition(),
+                                                            cursor.getId(), PageRequest.ofSize(size)));
     }
 
-    private User findUserById(long userId) {
-        return  userRepository.findById(userId)
-                              .orElseThrow(() -> new EntityNotFoundException(userId, User.class));
+    private List<CommentDto> commentsToDto(long itemId, List<Comment> comments) {
+        if (comments.isEmpty() && !itemRepository.existsById(itemId)) {
+            throw new EntityNotFoundException(itemId, Item.class);
+        }
+
+        return comments.stream()
+                       .map(itemMapper::commentToDto)
+                       .collect(Collectors.toList());
     }
 
     private Item findItemById(long itemId) {
@@ -189,8 +298,6 @@ public class ItemServiceImpl implements ItemService {
     }
 
     private void existsUserById(long userId) {
-        if (!userRepository.existsById(userId)) {
-            throw new EntityNotFoundException(userId, User.class);
-        }
+        userCache.requireExists(userId);
     }
 }
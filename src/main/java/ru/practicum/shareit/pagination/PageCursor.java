@@ -0,0 +1,66 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.exeption.InvalidCursor;
+import ru.practicum.shareit.validation.ContextShareIt;
+
+import javax.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Opaque keyset position: id of the last row of a page and, for lists ordered by time,
+ * the timestamp of that row, cut to the microsecond precision of the timestamp columns.
+ * Clients only pass back the value they got in {@code X-Next-Cursor}.
+ */
+@Getter
+@AllArgsConstructor
+public class PageCursor {
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime position;
+    private final Long id;
+
+    public static PageCursor of(Long id) {
+        return new PageCursor(null, id);
+    }
+
+    public static PageCursor of(LocalDateTime position, Long id) {
+        return new PageCursor(position.truncatedTo(ChronoUnit.MICROS), id);
+    }
+
+    public String encode() {
+        final String raw = position == null ? String.valueOf(id) : position + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String cursor, boolean positioned) {
+        try {
+            final String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            final int separator = raw.indexOf(SEPARATOR);
+
+            if (positioned != (separator >= 0)) {
+                throw new InvalidCursor(cursor);
+            }
+            if (!positioned) {
+                return of(Long.valueOf(raw));
+            }
+            return of(LocalDateTime.parse(raw.substring(0, separator)), Long.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursor(cursor);
+        }
+    }
+
+    public static <T> void writeNext(HttpServletResponse response, List<T> page, int size,
+                                     Function<T, PageCursor> cursorOf) {
+        if (!page.isEmpty() && page.size() >= size) {
+            response.setHeader(ContextShareIt.HEADER_NEXT_CURSOR, cursorOf.apply(page.get(page.size() - 1)).encode());
+        }
+    }
+}
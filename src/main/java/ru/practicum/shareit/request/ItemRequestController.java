@@ -6,17 +6,18 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoOut;
 import ru.practicum.shareit.request.dto.ItemRequestDtoWithItems;
 import ru.practicum.shareit.request.service.ItemRequestService;
-import ru.practicum.shareit.validation.ContextShareIt;
+import ru.practicum.shareit.user.sharer.SharerUserId;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
@@ -31,25 +32,31 @@ public class ItemRequestController {
     private final ItemRequestService itemRequestService;
 
     @PostMapping
-    public ItemRequestDtoOut createItemRequest(@RequestHeader(ContextShareIt.HEADER_USER_ID) Long userId,
+    public ItemRequestDtoOut createItemRequest(@SharerUserId Long userId,
                                                 @RequestBody @Valid ItemRequestDto itemRequestDto) {
         return itemRequestService.createItemRequest(userId, itemRequestDto, LocalDateTime.now());
     }
 
     @GetMapping
-    public List<ItemRequestDtoWithItems> getMyItemRequests(@RequestHeader(ContextShareIt.HEADER_USER_ID) Long userId) {
+    public List<ItemRequestDtoWithItems> getMyItemRequests(@SharerUserId Long userId) {
         return itemRequestService.getMyItemRequests(userId);
     }
 
     @GetMapping("/all")
-    public List<ItemRequestDtoWithItems> getAllItemRequests(@RequestHeader(ContextShareIt.HEADER_USER_ID) Long userId,
+    public List<ItemRequestDtoWithItems> getAllItemRequests(@SharerUserId Long userId,
                                         @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                        @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
-        return itemRequestService.getAllItemRequests(userId, from, size);
+                                        @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                        @RequestParam(name = "cursor", required = false) String cursor,
+                                        HttpServletResponse response) {
+        final List<ItemRequestDtoWithItems> requests = cursor == null
+                ? itemRequestService.getAllItemRequests(userId, from, size)
+                : itemRequestService.getAllItemRequests(userId, PageCursor.decode(cursor, true), size);
+        PageCursor.writeNext(response, requests, size, f -> PageCursor.of(f.getCreated(), f.getId()));
+        return requests;
     }
 
     @GetMapping("/{requestId}")
-    public ItemRequestDtoWithItems getItemByIdForUserId(@RequestHeader(ContextShareIt.HEADER_USER_ID) Long userId,
+    public ItemRequestDtoWithItems getItemByIdForUserId(@SharerUserId Long userId,
                                                         @PathVariable Long requestId) {
         return itemRequestService.getRequestById(userId, requestId);
     }
@@ -3,12 +3,19 @@ package ru.practicum.shareit.request.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
     List<ItemRequest> findByAuthorIdOrderByCreatedDesc(Long authorId);
 
     Page<ItemRequest> findByAuthorIdNot(long authorId, Pageable page);
+
+    @Query("SELECT r FROM ItemRequest r WHERE r.author.id <> :authorId AND " +
+           "(r.created < :cursorCreated OR (r.created = :cursorCreated AND r.id < :cursorId)) " +
+           "ORDER BY r.created DESC, r.id DESC")
+    List<ItemRequest> seekByAuthorIdNot(long authorId, LocalDateTime cursorCreated, Long cursorId, Pageable page);
 }
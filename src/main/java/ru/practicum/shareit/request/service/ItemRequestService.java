@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request.service;
 
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoWithItems;
 import ru.practicum.shareit.request.dto.ItemRequestDtoOut;
@@ -14,5 +15,7 @@ public interface ItemRequestService {
 
     List<ItemRequestDtoWithItems> getAllItemRequests(long userId, int from, int size);
 
+    List<ItemRequestDtoWithItems> getAllItemRequests(long userId, PageCursor cursor, int size);
+
     ItemRequestDtoWithItems getRequestById(Long userId, Long requestId);
 }
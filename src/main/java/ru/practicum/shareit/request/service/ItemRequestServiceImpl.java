@@ -1,6 +1,7 @@
 package ru.practicum.shareit.request.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -10,17 +11,20 @@ import ru.practicum.shareit.exeption.EntityNotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDtoOut;
 import ru.practicum.shareit.request.dto.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoWithItems;
+import ru.practicum.shareit.user.cache.UserExistenceCache;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -34,6 +38,8 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     private final UserRepository userRepository;
 
+    private final UserExistenceCache userCache;
+
     private final ItemRepository itemRepository;
 
     private final ItemRequestMapper requestMapper;
@@ -42,11 +48,16 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public ItemRequestDtoOut createItemRequest(long userId, ItemRequestDto itemRequestDto, LocalDateTime current) {
-        User author = findUserById(userId);
+        User author = userRepository.getReferenceById(userId);
 
         ItemRequest itemRequest = requestMapper.fromDto(author, itemRequestDto, current);
 
-        return requestMapper.toDto(requestRepository.save(itemRequest));
+        try {
+            return requestMapper.toDto(requestRepository.saveAndFlush(itemRequest));
+        } catch (DataIntegrityViolationException e) {
+            existsUserById(userId);
+            throw e;
+        }
     }
 
     @Override
@@ -62,12 +73,27 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public List<ItemRequestDtoWithItems> getAllItemRequests(long userId, int from, int size) {
-        Pageable pageable = PageRequest.of(from > 0 ? from / size : 0, size, Sort.by("created").descending());
+        Pageable pageable = PageRequest.of(from > 0 ? from / size : 0, size,
+                                           Sort.by("created").descending().and(Sort.by("id").descending()));
 
         Map<Long, ItemRequest> itemRequests = requestRepository.findByAuthorIdNot(userId, pageable)
                                                                .stream()
                                                                .collect(Collectors.toMap(ItemRequest::getId,
-                                                                         Function.identity()));
+                                                                         Function.identity(),
+                                                                         (first, second) -> first,
+                                                                         LinkedHashMap::new));
+        return enrichRequestsByItems(itemRequests);
+    }
+
+    @Override
+    public List<ItemRequestDtoWithItems> getAllItemRequests(long userId, PageCursor cursor, int size) {
+        Map<Long, ItemRequest> itemRequests = requestRepository.seekByAuthorIdNot(userId, cursor.getPosition(),
+                                                                    cursor.getId(), PageRequest.ofSize(size))
+                                                               .stream()
+                                                               .collect(Collectors.toMap(ItemRequest::getId,
+                                                                         Function.identity(),
+                                                                         (first, second) -> first,
+                                                                         LinkedHashMap::new));
         return enrichRequestsByItems(itemRequests);
     }
 
@@ -87,15 +113,8 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                               .collect(Collectors.toList()));
     }
 
-    private User findUserById(long userId) {
-        return  userRepository.findById(userId)
-                .orElseThrow(() -> new EntityNotFoundException(userId, User.class));
-    }
-
     private void existsUserById(long userId) {
-        if (!userRepository.existsById(userId)) {
-            throw new EntityNotFoundException(userId, User.class);
-        }
+        userCache.requireExists(userId);
     }
 
     private List<ItemRequestDtoWithItems> enrichRequestsByItems(Map<Long, ItemRequest> itemRequests) {
@@ -2,6 +2,7 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,11 +14,13 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.validation.Create;
 import ru.practicum.shareit.validation.Update;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.constraints.PositiveOrZero;
 import javax.validation.constraints.Positive;
 import java.util.List;
@@ -31,9 +34,18 @@ public class UserController {
 
     @GetMapping
     public List<UserDto> getAllUsers(@PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                     @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
-        final PageRequest pageable = PageRequest.of(from > 0 ? from / size : 0, size);
-        return userService.getAllUsers(pageable);
+                                     @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                     @RequestParam(name = "cursor", required = false) String cursor,
+                                     HttpServletResponse response) {
+        final List<UserDto> users;
+        if (cursor == null) {
+            final PageRequest pageable = PageRequest.of(from > 0 ? from / size : 0, size, Sort.by("id"));
+            users = userService.getAllUsers(pageable);
+        } else {
+            users = userService.getAllUsers(PageCursor.decode(cursor, false), size);
+        }
+        PageCursor.writeNext(response, users, size, f -> PageCursor.of(f.getId()));
+        return users;
     }
 
     @PostMapping
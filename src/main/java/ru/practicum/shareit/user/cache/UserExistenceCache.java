@@ -0,0 +1,149 @@
+package ru.practicum.shareit.user.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exeption.EntityNotFoundException;
+import ru.practicum.shareit.transaction.AfterCommit;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bitset of ids of users known to exist, so validating the X-Sharer-User-Id header does not
+ * query the database. An id missing from the set is checked in the database and remembered
+ * once the check is committed; ids beyond the int range are always checked in the database.
+ * While a user delete is in flight, and for any check that started before a delete finished,
+ * the id is not remembered, so a check racing the delete cannot bring the id back.
+ */
+@Slf4j
+@Component
+public class UserExistenceCache {
+    private final BitSet knownIds = new BitSet();
+
+    private final Map<Long, Integer> deletesInFlight = new HashMap<>();
+
+    private long removals;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final UserRepository userRepository;
+
+    private final Counter savedQueries;
+
+    public UserExistenceCache(UserRepository userRepository, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.savedQueries = meterRegistry.counter("shareit.user.cache.saved.queries");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        lock.writeLock().lock();
+        try {
+            knownIds.clear();
+            userRepository.findAllIds().forEach(this::set);
+            log.info("Кэш пользователей загружен, пользователей: {}", knownIds.cardinality());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void requireExists(long userId) {
+        if (isKnown(userId)) {
+            savedQueries.increment();
+            return;
+        }
+        final long checkedAt = removals();
+        if (!userRepository.existsById(userId)) {
+            throw new EntityNotFoundException(userId, User.class);
+        }
+        add(userId, checkedAt);
+    }
+
+    public void add(long userId) {
+        add(userId, removals());
+    }
+
+    /**
+     * Forgets the user now and again once the deleting transaction is over; until then
+     * the id is not remembered by concurrent checks.
+     */
+    public void remove(long userId) {
+        lock.writeLock().lock();
+        try {
+            deletesInFlight.merge(userId, 1, Integer::sum);
+            clear(userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        AfterCommit.runAfterCompletion(() -> {
+            lock.writeLock().lock();
+            try {
+                deletesInFlight.computeIfPresent(userId, (id, count) -> count == 1 ? null : count - 1);
+                clear(userId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private void add(long userId, long checkedAt) {
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                if (removals == checkedAt && !deletesInFlight.containsKey(userId)) {
+                    set(userId);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private long removals() {
+        lock.readLock().lock();
+        try {
+            return removals;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void clear(long userId) {
+        removals++;
+        if (fits(userId)) {
+            knownIds.clear((int) userId);
+        }
+    }
+
+    private boolean isKnown(long userId) {
+        if (!fits(userId)) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            return knownIds.get((int) userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void set(long userId) {
+        if (fits(userId)) {
+            knownIds.set((int) userId);
+        }
+    }
+
+    private static boolean fits(long userId) {
+        return userId >= 0 && userId <= Integer.MAX_VALUE;
+    }
+}
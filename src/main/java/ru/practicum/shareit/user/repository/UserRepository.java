@@ -1,8 +1,16 @@
 package ru.practicum.shareit.user.repository;
 
+import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.user.model.User;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+    List<User> findByIdGreaterThanOrderById(Long cursorId, Pageable page);
+
+    @Query("SELECT u.id FROM User u")
+    List<Long> findAllIds();
 }
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.user.service;
 
 import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
@@ -8,6 +9,8 @@ import java.util.List;
 public interface UserService {
     List<UserDto> getAllUsers(PageRequest pageRequest);
 
+    List<UserDto> getAllUsers(PageCursor cursor, int size);
+
     UserDto createUser(UserDto user);
 
     UserDto updateUser(Long userId, UserDto user);
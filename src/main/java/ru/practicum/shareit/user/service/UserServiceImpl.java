@@ -3,7 +3,19 @@ package ru.practicum.shareit.user.service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.summary.ItemBookingSummary;
 import ru.practicum.shareit.exeption.EntityNotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemNameSuggester;
+import ru.practicum.shareit.item.search.ItemSearch;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.pagination.PageCursor;
+import ru.practicum.shareit.user.cache.UserExistenceCache;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
@@ -19,6 +31,22 @@ public class UserServiceImpl implements UserService {
 
     private final UserMapper userMapper;
 
+    private final UserExistenceCache userCache;
+
+    private final BookingRepository bookingRepository;
+
+    private final ItemRepository itemRepository;
+
+    private final ItemAvailabilityIndex availabilityIndex;
+
+    private final ItemBookingSummary bookingSummary;
+
+    private final ItemSearch itemSearch;
+
+    private final ItemNameSuggester nameSuggester;
+
+    private final ItemSearchCache searchCache;
+
     @Override
     public List<UserDto> getAllUsers(PageRequest pageRequest) {
         return userRepository.findAll(pageRequest)
@@ -27,11 +55,20 @@ public class UserServiceImpl implements UserService {
                              .collect(Collectors.toList());
     }
 
+    @Override
+    public List<UserDto> getAllUsers(PageCursor cursor, int size) {
+        return userRepository.findByIdGreaterThanOrderById(cursor.getId(), PageRequest.ofSize(size))
+                             .stream()
+                             .map(userMapper::toDto)
+                             .collect(Collectors.toList());
+    }
+
     @Override
     public UserDto createUser(UserDto userDto) {
         userDto.setId(null);
         final User newUser = userMapper.fromDto(userDto);
         userRepository.save(newUser);
+        userCache.add(newUser.getId());
         return userMapper.toDto(newUser);
     }
 
@@ -56,10 +93,27 @@ public class UserServiceImpl implements UserService {
         return userMapper.toDto(user);
     }
 
+    /**
+     * The user's items, bookings and comments go away through ON DELETE CASCADE, so everything
+     * the in-memory read models hold for them is collected before the delete and evicted after commit.
+     */
     @Override
+    @Transactional
     public Boolean deleteUserById(long userId) {
         User user = userRepository.findById(userId).orElseThrow(() -> new EntityNotFoundException(userId, User.class));
+        final List<Booking> bookings = bookingRepository.findByBookerIdOrOwnerId(userId);
+        final List<Item> items = itemRepository.findByOwner_Id(userId);
+        final List<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toList());
+
+        userCache.remove(userId);
         userRepository.delete(user);
+
+        availabilityIndex.removeAll(bookings);
+        availabilityIndex.removeItems(itemIds);
+        bookingSummary.removeAll(bookings, itemIds);
+        itemSearch.remove(itemIds);
+        nameSuggester.removeAll(itemIds);
+        searchCache.evict(items);
         return true;
     }
 
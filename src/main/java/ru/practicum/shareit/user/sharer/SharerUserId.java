@@ -0,0 +1,14 @@
+package ru.practicum.shareit.user.sharer;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds the id from the X-Sharer-User-Id header after checking that the user exists.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SharerUserId {
+}
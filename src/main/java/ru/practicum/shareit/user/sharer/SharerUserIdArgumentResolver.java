@@ -0,0 +1,55 @@
+package ru.practicum.shareit.user.sharer;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.MissingRequestHeaderException;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import ru.practicum.shareit.user.cache.UserExistenceCache;
+import ru.practicum.shareit.validation.ContextShareIt;
+
+@Component
+@RequiredArgsConstructor
+public class SharerUserIdArgumentResolver implements HandlerMethodArgumentResolver {
+    private static final String RESOLVED_ID = SharerUserIdArgumentResolver.class.getName() + ".id";
+
+    private final UserExistenceCache userCache;
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(SharerUserId.class)
+                && Long.class.isAssignableFrom(parameter.getParameterType());
+    }
+
+    @Override
+    public Long resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                NativeWebRequest webRequest, WebDataBinderFactory binderFactory)
+            throws MissingRequestHeaderException {
+        final Object resolved = webRequest.getAttribute(RESOLVED_ID, RequestAttributes.SCOPE_REQUEST);
+        if (resolved != null) {
+            return (Long) resolved;
+        }
+
+        final String header = webRequest.getHeader(ContextShareIt.HEADER_USER_ID);
+        if (header == null) {
+            throw new MissingRequestHeaderException(ContextShareIt.HEADER_USER_ID, parameter);
+        }
+
+        final long userId;
+        try {
+            userId = Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            throw new MethodArgumentTypeMismatchException(header, Long.class, ContextShareIt.HEADER_USER_ID,
+                                                          parameter, e);
+        }
+
+        userCache.requireExists(userId);
+        webRequest.setAttribute(RESOLVED_ID, userId, RequestAttributes.SCOPE_REQUEST);
+        return userId;
+    }
+}
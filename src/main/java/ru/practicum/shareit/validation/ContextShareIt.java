@@ -3,6 +3,8 @@ package ru.practicum.shareit.validation;
 public class ContextShareIt {
     public static final String HEADER_USER_ID = "X-Sharer-User-Id";
 
+    public static final String HEADER_NEXT_CURSOR = "X-Next-Cursor";
+
     public static final int from = 0;
 
     public static final int size = 5;
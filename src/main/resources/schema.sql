@@ -1,7 +1,21 @@
-DROP TABLE IF EXISTS  items_comments, bookings, items, items_requests, users;
+DROP VIEW IF EXISTS bookings_all;
+
+DROP TABLE IF EXISTS  items_comments, bookings_archive, bookings, items, items_requests, users;
+
+DROP SEQUENCE IF EXISTS users_seq;
+DROP SEQUENCE IF EXISTS items_requests_seq;
+DROP SEQUENCE IF EXISTS items_seq;
+DROP SEQUENCE IF EXISTS bookings_seq;
+DROP SEQUENCE IF EXISTS items_comments_seq;
+
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_requests_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_comments_seq START WITH 1 INCREMENT BY 50;
 
 CREATE TABLE IF NOT EXISTS users (
-  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  id BIGINT NOT NULL,
   name VARCHAR(255) NOT NULL,
   email VARCHAR(512) NOT NULL,
   CONSTRAINT pk_user PRIMARY KEY (id),
@@ -9,15 +23,17 @@ CREATE TABLE IF NOT EXISTS users (
 );
 
 CREATE TABLE IF NOT EXISTS items_requests (
-  id      BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+  id      BIGINT NOT NULL PRIMARY KEY,
   user_id BIGINT,
   description varchar(1000),
   created timestamp,
   CONSTRAINT fk_requests_to_users FOREIGN KEY(user_id) REFERENCES users(id) ON DELETE CASCADE
 );
 
+CREATE INDEX IF NOT EXISTS idx_requests_created ON items_requests (created DESC, id DESC);
+
 CREATE TABLE IF NOT EXISTS items
-( id      BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+( id      BIGINT NOT NULL PRIMARY KEY,
   user_id BIGINT,
   request_id BIGINT,
   name varchar(100),
@@ -28,18 +44,50 @@ CREATE TABLE IF NOT EXISTS items
  );
 
 CREATE TABLE IF NOT EXISTS bookings
-( id      BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+( id      BIGINT NOT NULL PRIMARY KEY,
   user_id BIGINT,
   item_id BIGINT,
+  owner_id BIGINT,
   start_data timestamp,
   end_data timestamp,
   status varchar(50),
   CONSTRAINT fk_bookings_to_users FOREIGN KEY(user_id) REFERENCES users(id) ON DELETE CASCADE,
-  CONSTRAINT fk_bookings_to_items FOREIGN KEY(item_id) REFERENCES items(id) ON DELETE CASCADE
+  CONSTRAINT fk_bookings_to_items FOREIGN KEY(item_id) REFERENCES items(id) ON DELETE CASCADE,
+  CONSTRAINT fk_bookings_to_owners FOREIGN KEY(owner_id) REFERENCES users(id) ON DELETE CASCADE
  );
 
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (user_id, start_data DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_start ON bookings (owner_id, start_data DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_status_start ON bookings (owner_id, status, start_data DESC);
+
+CREATE TABLE IF NOT EXISTS bookings_archive
+( id      BIGINT NOT NULL PRIMARY KEY,
+  user_id BIGINT,
+  item_id BIGINT,
+  owner_id BIGINT,
+  start_data timestamp,
+  end_data timestamp,
+  status varchar(50),
+  CONSTRAINT fk_bookings_archive_to_users FOREIGN KEY(user_id) REFERENCES users(id) ON DELETE CASCADE,
+  CONSTRAINT fk_bookings_archive_to_items FOREIGN KEY(item_id) REFERENCES items(id) ON DELETE CASCADE,
+  CONSTRAINT fk_bookings_archive_to_owners FOREIGN KEY(owner_id) REFERENCES users(id) ON DELETE CASCADE
+ );
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_booker_start ON bookings_archive (user_id, start_data DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_owner_start ON bookings_archive (owner_id, start_data DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_item ON bookings_archive (item_id, start_data DESC);
+
+CREATE VIEW bookings_all AS
+  SELECT id, user_id, item_id, owner_id, start_data, end_data, status FROM bookings
+  UNION ALL
+  SELECT id, user_id, item_id, owner_id, start_data, end_data, status FROM bookings_archive;
+
  CREATE TABLE IF NOT EXISTS items_comments
- ( id      BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+ ( id      BIGINT NOT NULL PRIMARY KEY,
    item_id BIGINT,
    user_id BIGINT,
    text varchar(1000),
@@ -48,3 +96,5 @@ CREATE TABLE IF NOT EXISTS bookings
    CONSTRAINT fk_comments_to_items FOREIGN KEY(item_id) REFERENCES items(id) ON DELETE CASCADE
  );
 
+CREATE INDEX IF NOT EXISTS idx_comments_item_created ON items_comments (item_id, created DESC, id DESC);
+
@@ -1,50 +0,0 @@
-DROP TABLE IF EXISTS  items_comments, bookings, items, items_requests, users;
-
-CREATE TABLE IF NOT EXISTS users (
-  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
-  name VARCHAR(255) NOT NULL,
-  email VARCHAR(512) NOT NULL,
-  CONSTRAINT pk_user PRIMARY KEY (id),
-  CONSTRAINT UQ_USER_EMAIL UNIQUE (email)
-);
-
-CREATE TABLE IF NOT EXISTS items_requests (
-  id      BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
-  user_id BIGINT,
-  description varchar(1000),
-  created timestamp,
-  CONSTRAINT fk_requests_to_users FOREIGN KEY(user_id) REFERENCES users(id) ON DELETE CASCADE
-);
-
-CREATE TABLE IF NOT EXISTS items
-( id      BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
-  user_id BIGINT,
-  request_id BIGINT,
-  name varchar(100),
-  description VARCHAR(1000),
-  available BOOLEAN,
-  CONSTRAINT fk_items_to_users FOREIGN KEY(user_id) REFERENCES users(id) ON DELETE CASCADE,
-  CONSTRAINT fk_items_to_requests FOREIGN KEY(request_id) REFERENCES items_requests(id)
- );
-
-CREATE TABLE IF NOT EXISTS bookings
-( id      BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
-  user_id BIGINT,
-  item_id BIGINT,
-  start_data timestamp,
-  end_data timestamp,
-  status varchar(50),
-  CONSTRAINT fk_bookings_to_users FOREIGN KEY(user_id) REFERENCES users(id) ON DELETE CASCADE,
-  CONSTRAINT fk_bookings_to_items FOREIGN KEY(item_id) REFERENCES items(id) ON DELETE CASCADE
- );
-
- CREATE TABLE IF NOT EXISTS items_comments
- ( id      BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
-   item_id BIGINT,
-   user_id BIGINT,
-   text varchar(1000),
-   created timestamp,
-   CONSTRAINT fk_comments_to_users FOREIGN KEY(user_id) REFERENCES users(id) ON DELETE CASCADE,
-   CONSTRAINT fk_comments_to_items FOREIGN KEY(item_id) REFERENCES items(id) ON DELETE CASCADE
- );
-
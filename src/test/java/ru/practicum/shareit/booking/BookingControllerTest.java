@@ -15,8 +15,10 @@ import ru.practicum.shareit.booking.dto.BookingDtoOut;
 import ru.practicum.shareit.booking.model.StatusBooking;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.dto.ItemDtoShort;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.user.dto.UserDtoShort;
 import ru.practicum.shareit.validation.ContextShareIt;
+import ru.practicum.shareit.user.cache.UserExistenceCache;
 
 import javax.validation.ConstraintViolation;
 import javax.validation.Validation;
@@ -31,8 +33,10 @@ import static org.hamcrest.Matchers.hasSize;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -40,6 +44,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -51,6 +56,9 @@ class BookingControllerTest {
     @MockBean
     BookingService bookingService;
 
+    @MockBean
+    UserExistenceCache userCache;
+
     @Autowired
     MockMvc mockMvc;
 
@@ -151,6 +159,36 @@ class BookingControllerTest {
         verify(bookingService, times(1)).approvedBooking(anyLong(), anyLong(), anyBoolean());
     }
 
+    @Test
+    @DisplayName("should approve several bookings")
+    void should_approve_bookings() throws Exception {
+        when(bookingService.approveBookings(anyLong(), anyCollection(), anyBoolean()))
+                .thenReturn(List.of(bookingDto));
+
+        mockMvc.perform(patch("/bookings/approve")
+                        .header(ContextShareIt.HEADER_USER_ID, userDtoShort.getId())
+                        .param("approved", String.valueOf(true))
+                        .content("[" + bookingDto.getId() + "]")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(List.of(bookingDto))));
+
+        mockMvc.perform(patch("/bookings/approve")
+                        .header(ContextShareIt.HEADER_USER_ID, userDtoShort.getId())
+                        .param("approved", String.valueOf(true))
+                        .content("[]")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isBadRequest());
+
+        verify(bookingService, times(1)).approveBookings(anyLong(), eq(Set.of(bookingDto.getId())), eq(true));
+    }
+
     @Test
     @DisplayName("should get booking by id")
     void should_get_booking_by_id() throws Exception {
@@ -280,4 +318,49 @@ class BookingControllerTest {
                 )
                 .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+
+    @DisplayName("should get bookings by cursor and return next cursor")
+    @Test
+    void should_get_bookings_by_cursor() throws Exception {
+        final PageCursor cursor = PageCursor.of(current.plusDays(1), 5L);
+        when(bookingService.getBookingsByBookerId(anyLong(), any(), any(PageCursor.class), anyInt()))
+                .thenReturn(List.of(bookingDto));
+
+        mockMvc.perform(get("/bookings")
+                        .header(ContextShareIt.HEADER_USER_ID, userDtoShort.getId())
+                        .param("state", "ALL")
+                        .param("size", String.valueOf(1))
+                        .param("cursor", cursor.encode())
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().string(ContextShareIt.HEADER_NEXT_CURSOR,
+                                           PageCursor.of(bookingDto.getStart(), bookingDto.getId()).encode()));
+
+        verify(bookingService, times(1)).getBookingsByBookerId(anyLong(), any(), any(PageCursor.class), anyInt());
+    }
+
+    @DisplayName("should not return next cursor for last page")
+    @Test
+    void should_not_return_next_cursor_for_last_page() throws Exception {
+        when(bookingService.getBookingsByOwnerId(anyLong(), any(), anyInt(), anyInt()))
+                .thenReturn(List.of(bookingDto));
+
+        mockMvc.perform(get("/bookings/owner")
+                        .header(ContextShareIt.HEADER_USER_ID, userDtoShort.getId())
+                        .param("size", String.valueOf(10))
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(ContextShareIt.HEADER_NEXT_CURSOR));
+    }
+
+    @DisplayName("should not accept broken cursor")
+    @Test
+    void should_not_get_bookings_by_broken_cursor() throws Exception {
+        mockMvc.perform(get("/bookings/owner")
+                        .header(ContextShareIt.HEADER_USER_ID, userDtoShort.getId())
+                        .param("cursor", PageCursor.of(1L).encode())
+                )
+                .andExpect(status().isBadRequest());
+    }
+}
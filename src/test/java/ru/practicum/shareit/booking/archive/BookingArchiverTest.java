@@ -0,0 +1,92 @@
+package ru.practicum.shareit.booking.archive;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.StatusBooking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Booking archiver")
+class BookingArchiverTest {
+    BookingRepository bookingRepository;
+
+    ItemAvailabilityIndex availabilityIndex;
+
+    BookingArchiver archiver;
+
+    Item item;
+
+    final LocalDateTime current = LocalDateTime.of(2023, 10, 27, 10, 0);
+
+    @BeforeEach
+    void beforeEach() {
+        bookingRepository = mock(BookingRepository.class);
+        availabilityIndex = mock(ItemAvailabilityIndex.class);
+        archiver = new BookingArchiver(bookingRepository, availabilityIndex,
+                                       mock(PlatformTransactionManager.class), 30, 2, 3);
+
+        item = Item.builder()
+                .id(1L)
+                .owner(new User(1L, "owner", "owner@email"))
+                .name("item 1")
+                .available(true)
+                .build();
+    }
+
+    private Booking booking(long id) {
+        return Booking.builder()
+                .id(id)
+                .item(item)
+                .booker(new User(2L, "booker", "booker@email"))
+                .start(current.minusDays(41))
+                .end(current.minusDays(40))
+                .status(StatusBooking.APPROVED)
+                .build();
+    }
+
+    @Test
+    void should_move_ended_bookings_in_chunks() {
+        final List<Booking> first = List.of(booking(1L), booking(2L));
+        final List<Booking> second = List.of(booking(3L));
+        when(bookingRepository.findEndedForUpdate(current.minusDays(30), StatusBooking.WAITING, PageRequest.ofSize(2)))
+                .thenReturn(first)
+                .thenReturn(second);
+
+        Assertions.assertEquals(3, archiver.archive(current));
+
+        verify(bookingRepository, times(1)).copyToArchive(List.of(1L, 2L));
+        verify(bookingRepository, times(1)).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(bookingRepository, times(1)).copyToArchive(List.of(3L));
+        verify(bookingRepository, times(1)).deleteAllByIdInBatch(List.of(3L));
+        verify(availabilityIndex, times(1)).removeAll(first);
+        verify(availabilityIndex, times(1)).removeAll(second);
+    }
+
+    @Test
+    void should_do_nothing_without_ended_bookings() {
+        when(bookingRepository.findEndedForUpdate(any(), any(), any())).thenReturn(List.of());
+
+        Assertions.assertEquals(0, archiver.archive(current));
+
+        verify(bookingRepository, never()).copyToArchive(anyList());
+        verify(bookingRepository, never()).deleteAllByIdInBatch(anyList());
+    }
+}
@@ -0,0 +1,138 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.StatusBooking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Item availability index")
+class ItemAvailabilityIndexTest {
+    BookingRepository bookingRepository;
+
+    ItemAvailabilityIndex index;
+
+    User booker;
+
+    Item item;
+
+    final LocalDateTime current = LocalDateTime.of(2023, 10, 27, 10, 0);
+
+    @BeforeEach
+    void beforeEach() {
+        bookingRepository = mock(BookingRepository.class);
+        index = new ItemAvailabilityIndex(bookingRepository, false);
+
+        booker = new User(2L, "booker", "booker@email");
+
+        item = Item.builder()
+                .id(1L)
+                .owner(new User(1L, "owner", "owner@email"))
+                .name("item 1")
+                .available(true)
+                .build();
+    }
+
+    private Booking booking(long id, LocalDateTime start, LocalDateTime end, StatusBooking status) {
+        return Booking.builder()
+                .id(id)
+                .item(item)
+                .booker(booker)
+                .start(start)
+                .end(end)
+                .status(status)
+                .build();
+    }
+
+    @Test
+    void should_warm_up_from_repository() {
+        when(bookingRepository.findByStatusNotIn(Set.of(StatusBooking.REJECTED, StatusBooking.EXPIRED)))
+                .thenReturn(List.of(booking(1L, current, current.plusDays(1), StatusBooking.APPROVED)));
+
+        index.warmUp();
+
+        Assertions.assertFalse(index.isFree(item.getId(), current.plusHours(1), current.plusHours(2)));
+        Assertions.assertTrue(index.isFree(item.getId(), current.plusDays(2), current.plusDays(3)));
+        Assertions.assertTrue(index.isFree(2L, current, current.plusDays(1)));
+    }
+
+    @Test
+    void should_detect_every_kind_of_overlap() {
+        index.update(booking(1L, current, current.plusDays(2), StatusBooking.WAITING));
+
+        Assertions.assertFalse(index.isFree(item.getId(), current.minusDays(1), current));
+        Assertions.assertFalse(index.isFree(item.getId(), current.plusDays(2), current.plusDays(3)));
+        Assertions.assertFalse(index.isFree(item.getId(), current.minusDays(1), current.plusDays(3)));
+        Assertions.assertFalse(index.isFree(item.getId(), current.plusHours(1), current.plusHours(2)));
+        Assertions.assertTrue(index.isFree(item.getId(), current.minusDays(2), current.minusDays(1)));
+        Assertions.assertTrue(index.isFree(item.getId(), current.plusDays(3), current.plusDays(4)));
+    }
+
+    @Test
+    void should_find_overlap_hidden_behind_long_booking() {
+        index.update(booking(1L, current, current.plusDays(30), StatusBooking.APPROVED));
+        for (long i = 2; i < 50; i++) {
+            index.update(booking(i, current.plusDays(40 + i), current.plusDays(40 + i).plusHours(1),
+                                 StatusBooking.APPROVED));
+        }
+
+        Assertions.assertFalse(index.isFree(item.getId(), current.plusDays(10), current.plusDays(11)));
+        Assertions.assertTrue(index.isFree(item.getId(), current.plusDays(31), current.plusDays(32)));
+    }
+
+    @Test
+    void should_release_period_after_reject() {
+        final Booking booking = booking(1L, current, current.plusDays(1), StatusBooking.WAITING);
+        index.update(booking);
+
+        booking.setStatus(StatusBooking.REJECTED);
+        index.update(booking);
+
+        Assertions.assertTrue(index.isFree(item.getId(), current, current.plusDays(1)));
+    }
+
+    @Test
+    void should_release_all_periods_of_removed_item() {
+        index.updateAll(List.of(booking(1L, current, current.plusDays(1), StatusBooking.WAITING),
+                                booking(2L, current.plusDays(2), current.plusDays(3), StatusBooking.APPROVED)));
+
+        index.removeItems(List.of(item.getId()));
+
+        Assertions.assertTrue(index.isFree(item.getId(), current, current.plusDays(3)));
+    }
+
+    @Test
+    void should_not_query_db_without_verification() {
+        index.isFree(item.getId(), current, current.plusDays(1));
+
+        verify(bookingRepository, never())
+                .existsByItemIdInPeriodFromStartToEnd(anyLong(), any(), any());
+    }
+
+    @Test
+    void should_trust_db_when_verification_enabled() {
+        index = new ItemAvailabilityIndex(bookingRepository, true);
+        when(bookingRepository.existsByItemIdInPeriodFromStartToEnd(anyLong(), any(), any())).thenReturn(true);
+
+        Assertions.assertFalse(index.isFree(item.getId(), current, current.plusDays(1)));
+
+        verify(bookingRepository, times(1))
+                .existsByItemIdInPeriodFromStartToEnd(anyLong(), any(), any());
+    }
+}
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.booking.expiry;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.StatusBooking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Waiting booking expiry")
+class WaitingBookingExpiryTest {
+    BookingRepository bookingRepository;
+
+    ItemAvailabilityIndex availabilityIndex;
+
+    WaitingBookingExpiry expiry;
+
+    Item item;
+
+    final LocalDateTime current = LocalDateTime.of(2023, 10, 27, 10, 0);
+
+    @BeforeEach
+    void beforeEach() {
+        bookingRepository = mock(BookingRepository.class);
+        availabilityIndex = mock(ItemAvailabilityIndex.class);
+        expiry = new WaitingBookingExpiry(bookingRepository, availabilityIndex,
+                                          mock(PlatformTransactionManager.class), 2, 3);
+
+        item = Item.builder()
+                .id(1L)
+                .owner(new User(1L, "owner", "owner@email"))
+                .name("item 1")
+                .available(true)
+                .build();
+    }
+
+    private Booking booking(long id) {
+        return Booking.builder()
+                .id(id)
+                .item(item)
+                .booker(new User(2L, "booker", "booker@email"))
+                .start(current.minusDays(1))
+                .end(current.plusDays(1))
+                .status(StatusBooking.WAITING)
+                .build();
+    }
+
+    @Test
+    void should_expire_in_chunks_until_chunk_is_not_full() {
+        final Booking last = booking(3L);
+        when(bookingRepository.findStartedForUpdate(StatusBooking.WAITING, current, PageRequest.ofSize(2)))
+                .thenReturn(List.of(booking(1L), booking(2L)))
+                .thenReturn(List.of(last));
+
+        Assertions.assertEquals(3, expiry.expire(current));
+        Assertions.assertEquals(StatusBooking.EXPIRED, last.getStatus());
+
+        verify(bookingRepository, times(1)).updateStatus(List.of(1L, 2L), StatusBooking.EXPIRED);
+        verify(bookingRepository, times(1)).updateStatus(List.of(3L), StatusBooking.EXPIRED);
+        verify(availabilityIndex, times(2)).updateAll(anyList());
+    }
+
+    @Test
+    void should_stop_after_max_chunks() {
+        when(bookingRepository.findStartedForUpdate(any(), any(), any()))
+                .thenReturn(List.of(booking(1L), booking(2L)));
+
+        Assertions.assertEquals(6, expiry.expire(current));
+
+        verify(bookingRepository, times(3)).updateStatus(anyList(), eq(StatusBooking.EXPIRED));
+    }
+
+    @Test
+    void should_do_nothing_without_stale_bookings() {
+        when(bookingRepository.findStartedForUpdate(any(), any(), any())).thenReturn(List.of());
+
+        Assertions.assertEquals(0, expiry.expire(current));
+
+        verify(bookingRepository, never()).updateStatus(anyList(), any(StatusBooking.class));
+        verify(availabilityIndex, never()).updateAll(anyList());
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.StatusBooking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = {"shareit.cache.enabled=true",
+                           "spring.jpa.properties.hibernate.generate_statistics=true"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Booking archive and second-level cache")
+class BookingRepositoryCacheTest {
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    Statistics statistics;
+
+    User user;
+    Item item;
+    Booking booking;
+
+    @BeforeEach
+    void beforeEach() {
+        user = userRepository.save(new User(null, "user", "user@email"));
+
+        item = itemRepository.save(Item.builder()
+                .owner(user)
+                .name("item")
+                .description("item description")
+                .available(true)
+                .build());
+
+        booking = bookingRepository.save(Booking.builder()
+                .item(item)
+                .booker(user)
+                .start(LocalDateTime.now().minusDays(60))
+                .end(LocalDateTime.now().minusDays(59))
+                .status(StatusBooking.APPROVED)
+                .build());
+
+        final SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void afterEach() {
+        jdbcTemplate.update("DELETE FROM bookings_archive");
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @DisplayName("should keep user and item regions when copying bookings to the archive")
+    @Test
+    void should_not_evict_unrelated_regions_on_archive_copy() {
+        transactionTemplate.executeWithoutResult(status -> {
+            userRepository.findById(user.getId()).orElseThrow();
+            itemRepository.findById(item.getId()).orElseThrow();
+        });
+
+        transactionTemplate.executeWithoutResult(status ->
+                assertEquals(1, bookingRepository.copyToArchive(List.of(booking.getId()))));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            userRepository.findById(user.getId()).orElseThrow();
+            itemRepository.findById(item.getId()).orElseThrow();
+        });
+
+        assertEquals(1, statistics.getDomainDataRegionStatistics("shareit.user").getHitCount());
+        assertEquals(1, statistics.getDomainDataRegionStatistics("shareit.item").getHitCount());
+    }
+}
@@ -4,13 +4,25 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-import org.springframework.data.domain.Page;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.StatusBooking;
+import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.PageCursor;
+import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
@@ -18,16 +30,22 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({BookingMapper.class, ItemMapper.class, UserMapper.class})
 @DisplayName("Booking repository")
 class BookingRepositoryTest {
     @Autowired
     BookingRepository bookingRepository;
     @Autowired
+    BookingMapper bookingMapper;
+    @Autowired
+    TestEntityManager entityManager;
+    @Autowired
     ItemRepository itemRepository;
     @Autowired
     UserRepository userRepository;
@@ -76,9 +94,10 @@ class BookingRepositoryTest {
 
     @Test
     void exists_by_booker_id_and_item_id_and_end_before_and_status() {
-        boolean existsBooking = bookingRepository.existsByBookerIdAndItemIdAndEndBeforeAndStatus(
-                                        user2.getId(), item1.getId(), current.plusDays(3), StatusBooking.APPROVED);
-        assertTrue(existsBooking);
+        assertEquals(Optional.of(user2.getName()), bookingRepository.findBookerNameByBookerIdAndItemIdAndEndBeforeAndStatus(
+                user2.getId(), item1.getId(), current.plusDays(3), StatusBooking.APPROVED));
+        assertTrue(bookingRepository.findBookerNameByBookerIdAndItemIdAndEndBeforeAndStatus(
+                user3.getId(), item1.getId(), current.plusDays(5), StatusBooking.APPROVED).isEmpty());
     }
 
     @Test
@@ -89,47 +108,221 @@ class BookingRepositoryTest {
     }
 
     @Test
-    void find_by_items_booking() {
-        List<Booking> bookings = bookingRepository.findByItemsBooking(Set.of(item1.getId()),
-                                                                      StatusBooking.APPROVED.name());
+    void exists_by_item_id_in_period_inside_booking() {
+        boolean existsBooking = bookingRepository.existsByItemIdInPeriodFromStartToEnd(
+                                                  item1.getId(), current.plusDays(1).plusHours(1),
+                                                  current.plusDays(1).plusHours(2));
+        assertTrue(existsBooking);
+    }
+
+    @Test
+    void lock_bookings_without_joining_item_and_booker() {
+        entityManager.flush();
+        entityManager.clear();
+
+        final List<Booking> locked = bookingRepository.findAllForUpdate(Set.of(booking1.getId(), booking2.getId()));
+
+        assertEquals(2, locked.size());
+        locked.forEach(f -> {
+            assertFalse(Hibernate.isInitialized(f.getItem()));
+            assertFalse(Hibernate.isInitialized(f.getBooker()));
+        });
+    }
+
+    @Test
+    void update_status_only_for_owner_bookings() {
+        final List<Booking> locked = bookingRepository.findAllForUpdate(Set.of(booking1.getId(), booking2.getId()));
+        assertEquals(2, locked.size());
+
+        assertEquals(0, bookingRepository.updateStatus(Set.of(booking2.getId()), user2.getId(),
+                                                       StatusBooking.REJECTED));
+        assertEquals(1, bookingRepository.updateStatus(Set.of(booking2.getId()), user1.getId(),
+                                                       StatusBooking.APPROVED));
+
+        assertEquals(StatusBooking.APPROVED, bookingRepository.findById(booking2.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void find_last_and_next_by_items() {
+        final Booking last = bookingRepository.save(Booking.builder()
+                .item(item1)
+                .booker(user2)
+                .start(current.minusDays(2))
+                .end(current.minusDays(1))
+                .status(StatusBooking.APPROVED)
+                .build());
+        bookingRepository.save(Booking.builder()
+                .item(item1)
+                .booker(user3)
+                .start(current.minusDays(5))
+                .end(current.minusDays(4))
+                .status(StatusBooking.APPROVED)
+                .build());
+        bookingRepository.save(Booking.builder()
+                .item(item1)
+                .booker(user3)
+                .start(current.plusHours(1))
+                .end(current.plusHours(2))
+                .status(StatusBooking.REJECTED)
+                .build());
+        bookingRepository.save(Booking.builder()
+                .item(item1)
+                .booker(user3)
+                .start(current.plusDays(5))
+                .end(current.plusDays(6))
+                .status(StatusBooking.APPROVED)
+                .build());
+
+        List<Booking> bookings = bookingRepository.findLastAndNextByItems(Set.of(item1.getId()),
+                                                                          StatusBooking.APPROVED.name(), current);
+
+        assertEquals(2, bookings.size());
+        assertTrue(bookings.contains(last));
+        assertTrue(bookings.contains(booking1));
+    }
+
+    @Test
+    void find_last_started_by_status() {
+        List<Booking> bookings = bookingRepository.findLastStartedByStatus(StatusBooking.APPROVED.name(),
+                                                                           current.plusDays(5));
+
+        assertEquals(List.of(booking1), bookings);
+        assertEquals(List.of(booking2), bookingRepository.findByStatusAndStartAfter(StatusBooking.WAITING, current));
+    }
+
+    @Test
+    void find_started_for_update_and_expire() {
+        List<Booking> stale = bookingRepository.findStartedForUpdate(StatusBooking.WAITING, current.plusDays(3)
+                                                                     .plusHours(1), PageRequest.ofSize(10));
+
+        assertEquals(List.of(booking2), stale);
+        assertEquals(1, bookingRepository.updateStatus(List.of(booking2.getId()), StatusBooking.EXPIRED));
+        assertEquals(StatusBooking.EXPIRED, bookingRepository.findById(booking2.getId()).orElseThrow().getStatus());
+        assertFalse(bookingRepository.existsByItemIdInPeriodFromStartToEnd(item1.getId(), current.plusDays(3),
+                                                                           current.plusDays(4)));
+    }
+
+    @Test
+    void should_read_past_bookings_from_archive() {
+        final Booking old = bookingRepository.save(Booking.builder()
+                .item(item1)
+                .booker(user2)
+                .start(current.minusDays(60))
+                .end(current.minusDays(59))
+                .status(StatusBooking.APPROVED)
+                .build());
+
+        List<Booking> ended = bookingRepository.findEndedForUpdate(current.minusDays(30), StatusBooking.WAITING,
+                                                                   PageRequest.ofSize(10));
+        assertEquals(List.of(old), ended);
+
+        assertEquals(1, bookingRepository.copyToArchive(List.of(old.getId())));
+        bookingRepository.deleteAllByIdInBatch(List.of(old.getId()));
+
+        assertFalse(bookingRepository.existsById(old.getId()));
+        assertEquals(1, bookingRepository.findByBookerIdAndEndBefore(user2.getId(), current, Pageable.unpaged())
+                                         .getNumberOfElements());
+        assertEquals(2, bookingRepository.findByBookerId(user2.getId(), Pageable.unpaged()).getNumberOfElements());
+        assertEquals(1, bookingRepository.findByOwnerIdPast(user1.getId(), current, Pageable.unpaged())
+                                         .getNumberOfElements());
+        assertEquals(List.of(old.getId()), bookingRepository.seekByOwnerIdPast(user1.getId(), current,
+                current.plusYears(1), Long.MAX_VALUE, PageRequest.ofSize(10))
+                .stream().map(Booking::getId).collect(Collectors.toList()));
+        assertTrue(bookingRepository.findBookingByIdForOwner(old.getId(), user2.getId()).isPresent());
+        assertTrue(bookingRepository.findBookerNameByBookerIdAndItemIdAndEndBeforeAndStatus(
+                user2.getId(), item1.getId(), current, StatusBooking.APPROVED).isPresent());
+    }
 
-        assertEquals(1, bookings.size());
+    @Test
+    @DisplayName("should render a page of bookings with a fixed number of statements")
+    void should_render_booking_page_with_constant_statements() {
+        for (int i = 0; i < 20; i++) {
+            final User booker = userRepository.save(new User(null, "booker " + i, "booker" + i + "@email"));
+            final Item item = itemRepository.save(Item.builder()
+                    .owner(user1)
+                    .name("page item " + i)
+                    .description("page item description")
+                    .available(true)
+                    .build());
+            bookingRepository.save(Booking.builder()
+                    .item(item)
+                    .booker(booker)
+                    .start(current.plusDays(10 + i))
+                    .end(current.plusDays(11 + i))
+                    .status(StatusBooking.WAITING)
+                    .build());
+        }
+        entityManager.flush();
+
+        final Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                                                   .unwrap(SessionFactory.class).getStatistics();
+        final Sort byStart = Sort.by("start_data").descending().and(Sort.by("id").descending());
+
+        for (int size : new int[]{5, 20}) {
+            entityManager.clear();
+            statistics.clear();
+
+            final List<BookingDtoOut> page = bookingMapper.bookingsToDto(
+                    bookingRepository.findByOwnerId(user1.getId(), PageRequest.of(0, size, byStart)));
+
+            assertEquals(size, page.size());
+            assertEquals(3, statistics.getPrepareStatementCount());
+        }
+
+        entityManager.clear();
+        statistics.clear();
+
+        final List<BookingDtoOut> future = bookingMapper.bookingsToDto(bookingRepository.seekByOwnerIdFuture(
+                user1.getId(), current, current.plusYears(1), Long.MAX_VALUE, PageRequest.ofSize(20)));
+
+        assertEquals(20, future.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        entityManager.clear();
+        statistics.clear();
+
+        final List<BookingDtoOut> futurePage = bookingMapper.bookingsToDto(
+                bookingRepository.findByOwnerIdFuture(user1.getId(), current, PageRequest.of(1, 5)));
+
+        assertEquals(5, futurePage.size());
+        assertEquals(current.plusDays(24).toLocalDate(), futurePage.get(0).getStart().toLocalDate());
+        assertEquals(1, statistics.getPrepareStatementCount());
     }
 
     @Test
     void find_by_booker_id() {
-        Page<Booking> bookings = bookingRepository.findByBookerId(user3.getId(), Pageable.unpaged());
+        Slice<Booking> bookings = bookingRepository.findByBookerId(user3.getId(), Pageable.unpaged());
 
-        assertEquals(1, bookings.getTotalElements());
+        assertEquals(1, bookings.getNumberOfElements());
     }
 
     @Test
     void find_by_booker_id_and_end_before() {
-        Page<Booking> bookings = bookingRepository.findByBookerIdAndEndBefore(user2.getId(), current.plusDays(3),
+        Slice<Booking> bookings = bookingRepository.findByBookerIdAndEndBefore(user2.getId(), current.plusDays(3),
                                                                                Pageable.unpaged());
-        assertEquals(1, bookings.getTotalElements());
+        assertEquals(1, bookings.getNumberOfElements());
     }
 
     @Test
     void find_by_booker_id_and_start_after() {
-        Page<Booking> bookings = bookingRepository.findByBookerIdAndStartAfter(user2.getId(), current,
+        Slice<Booking> bookings = bookingRepository.findByBookerIdAndStartAfter(user2.getId(), current,
                                                                                 Pageable.unpaged());
-        assertEquals(1, bookings.getTotalElements());
+        assertEquals(1, bookings.getNumberOfElements());
     }
 
     @Test
     void find_by_booker_id_and_status() {
-        Page<Booking> bookings = bookingRepository.findByBookerIdAndStatus(user2.getId(), StatusBooking.APPROVED,
+        Slice<Booking> bookings = bookingRepository.findByBookerIdAndStatus(user2.getId(), StatusBooking.APPROVED,
                                                                             Pageable.unpaged());
-        assertEquals(1, bookings.getTotalElements());
+        assertEquals(1, bookings.getNumberOfElements());
     }
 
     @Test
     void find_by_booker_id_and_start_less_than_equal_and_end_greater_than_equal() {
-        Page<Booking> bookings = bookingRepository.findByBookerIdAndStartLessThanEqualAndEndGreaterThanEqual(
+        Slice<Booking> bookings = bookingRepository.findByBookerIdAndStartLessThanEqualAndEndGreaterThanEqual(
            user2.getId(), current.plusDays(1).plusMinutes(60), current.plusDays(1).plusMinutes(60), Pageable.unpaged());
 
-        assertEquals(1, bookings.getTotalElements());
+        assertEquals(1, bookings.getNumberOfElements());
     }
 
     @Test
@@ -142,41 +335,67 @@ class BookingRepositoryTest {
 
     @Test
     void find_by_owner_id() {
-        Page<Booking> bookings = bookingRepository.findByOwnerId(user1.getId(), Pageable.unpaged());
+        Slice<Booking> bookings = bookingRepository.findByOwnerId(user1.getId(), Pageable.unpaged());
 
-        assertEquals(2, bookings.getTotalElements());
+        assertEquals(2, bookings.getNumberOfElements());
     }
 
     @Test
     void find_by_owner_id_current() {
-        Page<Booking> bookings = bookingRepository.findByOwnerIdCurrent(user1.getId(),
+        Slice<Booking> bookings = bookingRepository.findByOwnerIdCurrent(user1.getId(),
                                   current.plusDays(1).plusMinutes(10), Pageable.unpaged());
 
-        assertEquals(1, bookings.getTotalElements());
+        assertEquals(1, bookings.getNumberOfElements());
         assertEquals(booking1, bookings.getContent().get(0));
     }
 
     @Test
     void find_by_owner_id_future() {
-        Page<Booking> bookings = bookingRepository.findByOwnerIdFuture(user1.getId(),
+        Slice<Booking> bookings = bookingRepository.findByOwnerIdFuture(user1.getId(),
                                   current.plusDays(2), Pageable.unpaged());
 
-        assertEquals(1, bookings.getTotalElements());
+        assertEquals(1, bookings.getNumberOfElements());
     }
 
     @Test
     void ffind_by_owner_id_past() {
-        Page<Booking> bookings = bookingRepository.findByOwnerIdPast(user1.getId(),
+        Slice<Booking> bookings = bookingRepository.findByOwnerIdPast(user1.getId(),
                                   current.plusDays(5), Pageable.unpaged());
 
-        assertEquals(2, bookings.getTotalElements());
+        assertEquals(2, bookings.getNumberOfElements());
     }
 
     @Test
     void find_by_owner_id_and_sStatus() {
-        Page<Booking> bookings = bookingRepository.findByOwnerIdAndStatus(user1.getId(),
+        Slice<Booking> bookings = bookingRepository.findByOwnerIdAndStatus(user1.getId(),
                                   StatusBooking.WAITING.toString(), Pageable.unpaged());
 
-        assertEquals(1, bookings.getTotalElements());
+        assertEquals(1, bookings.getNumberOfElements());
+    }
+
+    @Test
+    void seek_by_booker_id_and_owner_id() {
+        List<Booking> first = bookingRepository.seekByOwnerId(user1.getId(), current.plusYears(1), Long.MAX_VALUE,
+                                                              PageRequest.ofSize(1));
+
+        assertEquals(List.of(booking2), first);
+
+        PageCursor cursor = PageCursor.of(booking2.getStart(), booking2.getId());
+        List<Booking> second = bookingRepository.seekByOwnerId(user1.getId(), cursor.getPosition(), cursor.getId(),
+                                                               PageRequest.ofSize(1));
+
+        assertEquals(List.of(booking1), second);
+        cursor = PageCursor.of(booking1.getStart(), booking1.getId());
+        assertTrue(bookingRepository.seekByBookerId(user2.getId(), cursor.getPosition(), cursor.getId(),
+                                                    PageRequest.ofSize(1)).isEmpty());
+    }
+
+    @Test
+    void find_by_owner_id_has_next_without_total() {
+        Slice<Booking> bookings = bookingRepository.findByOwnerId(user1.getId(),
+                                  PageRequest.of(0, 1, Sort.by("start_data").descending()));
+
+        assertEquals(List.of(booking2), bookings.getContent());
+        assertTrue(bookings.hasNext());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,157 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.availability.ItemLocks;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.exeption.BookingExpired;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.StatusBooking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.summary.ItemBookingSummary;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.cache.UserExistenceCache;
+import ru.practicum.shareit.user.dto.UserMapper;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@DataJpaTest
+@Import({BookingServiceImpl.class, BookingMapper.class, ItemMapper.class, UserMapper.class,
+         UserExistenceCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Booking approval racing the expiry job")
+class BookingApprovalExpiryRaceTest {
+    @TestConfiguration
+    static class MetricsConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @MockBean
+    ItemAvailabilityIndex availabilityIndex;
+    @MockBean
+    ItemBookingSummary bookingSummary;
+    @MockBean
+    ItemLocks itemLocks;
+
+    @Autowired
+    BookingServiceImpl bookingService;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    final LocalDateTime current = LocalDateTime.now();
+
+    User owner;
+
+    Booking booking;
+
+    @BeforeEach
+    void beforeEach() {
+        owner = userRepository.save(new User(null, "owner", "owner@email"));
+        final User booker = userRepository.save(new User(null, "booker", "booker@email"));
+
+        final Item item = itemRepository.save(Item.builder()
+                .owner(owner)
+                .name("item")
+                .description("item description")
+                .available(true)
+                .build());
+
+        booking = bookingRepository.save(Booking.builder()
+                .item(item)
+                .booker(booker)
+                .start(current.minusHours(1))
+                .end(current.plusDays(1))
+                .status(StatusBooking.WAITING)
+                .build());
+    }
+
+    @AfterEach
+    void afterEach() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @DisplayName("should not approve a booking the expiry job has locked and expired")
+    @Test
+    void should_not_overwrite_expired_status() throws Exception {
+        final CountDownLatch locked = new CountDownLatch(1);
+        final CountDownLatch approving = new CountDownLatch(1);
+
+        final CompletableFuture<Void> expiry = CompletableFuture.runAsync(() ->
+                transactionTemplate.executeWithoutResult(status -> {
+                    final List<Booking> started = bookingRepository.findStartedForUpdate(
+                            StatusBooking.WAITING, current, PageRequest.ofSize(10));
+                    locked.countDown();
+                    await(approving);
+                    sleep();
+                    bookingRepository.updateStatus(started.stream().map(Booking::getId).collect(Collectors.toList()),
+                                                   StatusBooking.EXPIRED);
+                }));
+
+        await(locked);
+        final CompletableFuture<Void> approval = CompletableFuture.runAsync(() -> {
+            approving.countDown();
+            bookingService.approvedBooking(owner.getId(), booking.getId(), true);
+        });
+
+        expiry.get(10, TimeUnit.SECONDS);
+        final ExecutionException exception = Assertions.assertThrows(ExecutionException.class,
+                () -> approval.get(10, TimeUnit.SECONDS));
+
+        Assertions.assertInstanceOf(BookingExpired.class, exception.getCause());
+        Assertions.assertEquals(StatusBooking.EXPIRED,
+                                bookingRepository.findById(booking.getId()).orElseThrow().getStatus());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            Assertions.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void sleep() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(300);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.availability.ItemLocks;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.exeption.NoAccessBooking;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.summary.ItemBookingSummary;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.dto.UserMapper;
+import ru.practicum.shareit.user.cache.UserExistenceCache;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Test booking Service under concurrent load")
+class BookingServiceConcurrencyTest {
+    static final int THREADS = 16;
+
+    static final int ATTEMPTS = 200;
+
+    BookingServiceImpl bookingService;
+
+    BookingRepository bookingRepository;
+
+    AtomicInteger saved;
+
+    User owner;
+
+    User booker;
+
+    final LocalDateTime current = LocalDateTime.now();
+
+    @BeforeEach
+    void beforeEach() {
+        final ItemRepository itemRepository = mock(ItemRepository.class);
+        final UserRepository userRepository = mock(UserRepository.class);
+        final AtomicLong ids = new AtomicLong();
+        bookingRepository = mock(BookingRepository.class);
+        saved = new AtomicInteger();
+
+        owner = new User(1L, "owner", "owner@email");
+        booker = new User(2L, "booker", "booker@email");
+
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
+        when(itemRepository.findById(anyLong())).thenAnswer(invocation -> Optional.of(Item.builder()
+                .id(invocation.getArgument(0))
+                .owner(owner)
+                .name("item")
+                .available(true)
+                .build()));
+        when(bookingRepository.save(any())).thenAnswer(invocation -> {
+            final Booking booking = invocation.getArgument(0);
+            Thread.sleep(1);
+            booking.setId(ids.incrementAndGet());
+            saved.incrementAndGet();
+            return booking;
+        });
+
+        bookingService = new BookingServiceImpl(bookingRepository, userRepository,
+                                                new UserExistenceCache(userRepository, new SimpleMeterRegistry()),
+                                                itemRepository,
+                                                new BookingMapper(new ItemMapper(), new UserMapper()),
+                                                new ItemAvailabilityIndex(bookingRepository, false),
+                                                mock(ItemBookingSummary.class), new ItemLocks(64));
+    }
+
+    private BookingDto bookingDto(long itemId, int offset) {
+        return BookingDto.builder()
+                .itemId(itemId)
+                .start(current.plusDays(1).plusMinutes(offset))
+                .end(current.plusDays(2).plusMinutes(offset))
+                .build();
+    }
+
+    private int hammer(List<Callable<Boolean>> tasks) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<Boolean>> futures = new ArrayList<>();
+        try {
+            for (Callable<Boolean> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            int created = 0;
+            for (Future<Boolean> future : futures) {
+                if (future.get(30, TimeUnit.SECONDS)) {
+                    created++;
+                }
+            }
+            return created;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void should_admit_only_one_of_overlapping_bookings_for_same_item() throws Exception {
+        final List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int i = 0; i < ATTEMPTS; i++) {
+            final int offset = i % 60;
+            tasks.add(() -> {
+                try {
+                    bookingService.createBooking(booker.getId(), bookingDto(1L, offset), current);
+                    return true;
+                } catch (NoAccessBooking e) {
+                    return false;
+                }
+            });
+        }
+
+        Assertions.assertEquals(1, hammer(tasks));
+        Assertions.assertEquals(1, saved.get());
+    }
+
+    @Test
+    void should_admit_bookings_for_different_items() throws Exception {
+        final List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (long i = 1; i <= ATTEMPTS; i++) {
+            final long itemId = i;
+            tasks.add(() -> {
+                bookingService.createBooking(booker.getId(), bookingDto(itemId, 0), current);
+                return true;
+            });
+        }
+
+        Assertions.assertEquals(ATTEMPTS, hammer(tasks));
+        Assertions.assertEquals(ATTEMPTS, saved.get());
+    }
+}
@@ -28,7 +28,6 @@ import javax.transaction.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Set;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -71,7 +70,6 @@ class BookingServiceImplTest {
                 .name("item 1")
                 .description("item 1 description")
                 .available(true)
-                .comments(Set.of())
                 .build());
 
         booking = Booking.builder()
@@ -176,4 +174,19 @@ class BookingServiceImplTest {
 
         Assertions.assertEquals(StateBooking.class.getName() + " с id = 0 не найден.", exception.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    @Order(value = 7)
+    @DisplayName("should approve bookings in bulk and render item and booker")
+    void should_approve_bookings() {
+        em.flush();
+        em.clear();
+
+        final List<BookingDtoOut> approved = service.approveBookings(owner.getId(), List.of(1L), true);
+
+        assertThat(approved.size(), equalTo(1));
+        assertThat(approved.get(0).getStatus(), equalTo(StatusBooking.APPROVED));
+        assertThat(approved.get(0).getItem().getName(), equalTo(item.getName()));
+        assertThat(approved.get(0).getBooker().getId(), equalTo(booker.getId()));
+    }
+}
@@ -1,35 +1,45 @@
 package ru.practicum.shareit.booking.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.availability.ItemLocks;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.exeption.AttemptApprovedNotFromOwnerItem;
+import ru.practicum.shareit.booking.exeption.BookingExpired;
 import ru.practicum.shareit.booking.exeption.NoAccessBooking;
 import ru.practicum.shareit.booking.exeption.NotCorrectApproved;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.StateBooking;
 import ru.practicum.shareit.booking.model.StatusBooking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.summary.ItemBookingSummary;
 import ru.practicum.shareit.exeption.EntityNotFoundException;
 import ru.practicum.shareit.item.dto.ItemDtoShort;
 import ru.practicum.shareit.item.exeption.ItemUnavailable;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.dto.UserDtoShort;
+import ru.practicum.shareit.user.cache.UserExistenceCache;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -46,6 +56,10 @@ class BookingServiceTest {
 
     BookingMapper bookingMapper;
 
+    ItemAvailabilityIndex availabilityIndex;
+
+    ItemBookingSummary bookingSummary;
+
     User owner;
 
     User booker;
@@ -70,8 +84,13 @@ class BookingServiceTest {
         userRepository = mock(UserRepository.class);
         bookingRepository = mock(BookingRepository.class);
         bookingMapper = mock(BookingMapper.class);
+        availabilityIndex = mock(ItemAvailabilityIndex.class);
+        bookingSummary = mock(ItemBookingSummary.class);
 
-        bookingService = new BookingServiceImpl(bookingRepository, userRepository, itemRepository, bookingMapper);
+        bookingService = new BookingServiceImpl(bookingRepository, userRepository,
+                                                new UserExistenceCache(userRepository, new SimpleMeterRegistry()),
+                                                itemRepository, bookingMapper,
+                                                availabilityIndex, bookingSummary, new ItemLocks(1));
 
         owner = new User(1L, "owner", "owner@email");
 
@@ -159,11 +178,11 @@ class BookingServiceTest {
 
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
 
-        when(bookingRepository.existsByItemIdInPeriodFromStartToEnd(any(), any(), any())).thenReturn(true);
+        when(availabilityIndex.isFree(any(), any(), any())).thenReturn(false);
 
         Assertions.assertThrows(
                 NoAccessBooking.class,
-                () -> bookingService.createBooking(1L, bookingIn, current));
+                () -> bookingService.createBooking(booker.getId(), bookingIn, current));
     }
 
     @Test
@@ -172,7 +191,7 @@ class BookingServiceTest {
 
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
 
-        when(bookingRepository.existsByItemIdInPeriodFromStartToEnd(any(), any(), any())).thenReturn(false);
+        when(availabilityIndex.isFree(any(), any(), any())).thenReturn(true);
 
         Assertions.assertThrows(
                 NoAccessBooking.class,
@@ -185,7 +204,7 @@ class BookingServiceTest {
 
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
 
-        when(bookingRepository.existsByItemIdInPeriodFromStartToEnd(any(), any(), any())).thenReturn(false);
+        when(availabilityIndex.isFree(any(), any(), any())).thenReturn(true);
 
         when(bookingRepository.save(any())).thenReturn(booking);
 
@@ -203,19 +222,22 @@ class BookingServiceTest {
         verify(userRepository, times(1))
                 .findById(anyLong());
 
-        verify(bookingRepository, times(1))
-                .existsByItemIdInPeriodFromStartToEnd(any(), any(), any());
+        verify(availabilityIndex, times(1))
+                .isFree(any(), any(), any());
 
         verify(bookingRepository, times(1))
                 .save(any());
+
+        verify(availabilityIndex, times(1))
+                .update(any());
     }
 
     @Test
     void should_approved_booking() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
 
         booking.setStatus(StatusBooking.WAITING);
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingRepository.findByIdForUpdate(anyLong())).thenReturn(Optional.of(booking));
 
         when(bookingRepository.save(any())).thenReturn(booking);
 
@@ -227,10 +249,10 @@ class BookingServiceTest {
         Assertions.assertEquals(bookingOut.getStatus(), StatusBooking.APPROVED);
 
         verify(userRepository, times(1))
-                .findById(anyLong());
+                .existsById(anyLong());
 
         verify(bookingRepository, times(1))
-                .findById(any());
+                .findByIdForUpdate(any());
 
         verify(bookingRepository, times(1))
                 .save(any());
@@ -238,9 +260,9 @@ class BookingServiceTest {
 
     @Test
     void should_throw_booking_not_found() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
 
-        when(bookingRepository.findById(anyLong())).thenThrow(new EntityNotFoundException(anyLong(), Booking.class));
+        when(bookingRepository.findByIdForUpdate(anyLong())).thenThrow(new EntityNotFoundException(anyLong(), Booking.class));
 
         final EntityNotFoundException exception = Assertions.assertThrows(
                 EntityNotFoundException.class,
@@ -251,10 +273,10 @@ class BookingServiceTest {
 
     @Test
     void should_throw_no_correct_approved() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
 
         booking.setStatus(StatusBooking.APPROVED);
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingRepository.findByIdForUpdate(anyLong())).thenReturn(Optional.of(booking));
 
         final NotCorrectApproved exception = Assertions.assertThrows(
                 NotCorrectApproved.class,
@@ -264,12 +286,28 @@ class BookingServiceTest {
                                     exception.getMessage());
     }
 
+    @Test
+    void should_throw_if_approve_expired_booking() {
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+
+        booking.setStatus(StatusBooking.EXPIRED);
+        when(bookingRepository.findByIdForUpdate(anyLong())).thenReturn(Optional.of(booking));
+
+        final BookingExpired exception = Assertions.assertThrows(
+                BookingExpired.class,
+                () -> bookingService.approvedBooking(owner.getId(), booking.getId(), true));
+
+        Assertions.assertEquals("Бронь с id: 1 истекла без ответа владельца, изменить статус нельзя",
+                                exception.getMessage());
+        verify(bookingRepository, never()).save(any());
+    }
+
     @Test
     void should_throw_exception_if_try_approved_not_owner() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
 
         booking.setStatus(StatusBooking.WAITING);
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingRepository.findByIdForUpdate(anyLong())).thenReturn(Optional.of(booking));
 
         final AttemptApprovedNotFromOwnerItem exception = Assertions.assertThrows(
                 AttemptApprovedNotFromOwnerItem.class,
@@ -280,6 +318,65 @@ class BookingServiceTest {
                                           exception.getMessage());
     }
 
+    @Test
+    void should_approve_bookings_with_one_query_and_one_update() {
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+
+        final Booking other = Booking.builder()
+                .id(2L)
+                .item(item)
+                .booker(booker)
+                .ownerId(owner.getId())
+                .start(current.plusDays(2))
+                .end(current.plusDays(3))
+                .status(StatusBooking.REJECTED)
+                .build();
+        booking.setOwnerId(owner.getId());
+        when(bookingRepository.findAllForUpdate(anyCollection()))
+                .thenReturn(List.of(locked(other), locked(booking)));
+        when(bookingRepository.findAllWithItemAndBooker(anyCollection())).thenReturn(List.of(other, booking));
+        when(bookingMapper.bookingsToDto(any())).thenReturn(List.of(bookingOut, bookingOut));
+
+        final List<BookingDtoOut> result = bookingService.approveBookings(owner.getId(), List.of(1L, 2L, 1L), true);
+
+        Assertions.assertEquals(2, result.size());
+        Assertions.assertEquals(StatusBooking.APPROVED, booking.getStatus());
+        Assertions.assertEquals(StatusBooking.APPROVED, other.getStatus());
+
+        verify(bookingRepository, times(1)).findAllForUpdate(Set.of(1L, 2L));
+        verify(bookingRepository, times(1)).findAllWithItemAndBooker(Set.of(1L, 2L));
+        verify(bookingRepository, times(1)).updateStatus(Set.of(1L, 2L), owner.getId(), StatusBooking.APPROVED);
+        verify(bookingRepository, never()).save(any());
+        verify(availabilityIndex, times(1)).updateAll(List.of(booking, other));
+        verify(bookingSummary, times(1)).updateAll(List.of(booking, other));
+    }
+
+    private static Booking locked(Booking booking) {
+        return Booking.builder()
+                .id(booking.getId())
+                .ownerId(booking.getOwnerId())
+                .status(booking.getStatus())
+                .build();
+    }
+
+    @Test
+    void should_not_update_any_booking_if_one_belongs_to_another_owner() {
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+
+        booking.setOwnerId(owner.getId());
+        when(bookingRepository.findAllForUpdate(anyCollection())).thenReturn(List.of(booking));
+
+        Assertions.assertThrows(AttemptApprovedNotFromOwnerItem.class,
+                () -> bookingService.approveBookings(booker.getId(), List.of(1L), false));
+
+        final EntityNotFoundException exception = Assertions.assertThrows(EntityNotFoundException.class,
+                () -> bookingService.approveBookings(owner.getId(), List.of(1L, 5L), false));
+
+        Assertions.assertEquals(Booking.class.getName() + " с id = 5 не найден.", exception.getMessage());
+        verify(bookingRepository, never()).updateStatus(anyCollection(), anyLong(), any());
+        verify(availabilityIndex, never()).updateAll(anyCollection());
+    }
+
     @Test
     void should_get_booking_by_id() {
         when(bookingRepository.findBookingByIdForOwner(anyLong(),anyLong())).thenReturn(Optional.of(booking));
@@ -297,12 +394,12 @@ class BookingServiceTest {
 
     @Test
     void should_find_all_bookings_by_booker_id() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
 
         bookingService.getBookingsByBookerId(booker.getId(), StateBooking.ALL, 0, 10);
 
         verify(userRepository, times(1))
-                .findById(anyLong());
+                .existsById(anyLong());
 
         verify(bookingRepository, times(1))
                 .findByBookerId(anyLong(), any());
@@ -322,12 +419,12 @@ class BookingServiceTest {
 
     @Test
     void should_find_current_bookings_by_booker_id() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
 
         bookingService.getBookingsByBookerId(booker.getId(), StateBooking.CURRENT, 0, 10);
 
         verify(userRepository, times(1))
-                .findById(anyLong());
+                .existsById(anyLong());
 
         verify(bookingRepository, times(0))
                 .findByBookerId(anyLong(), any());
@@ -347,12 +444,12 @@ class BookingServiceTest {
 
     @Test
     void should_find_future_bookings_by_booker_id() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
 
         bookingService.getBookingsByBookerId(booker.getId(), StateBooking.FUTURE, 0, 10);
 
         verify(userRepository, times(1))
-                .findById(anyLong());
+                .existsById(anyLong());
 
         verify(bookingRepository, times(0))
                 .findByBookerId(anyLong(), any());
@@ -372,12 +469,12 @@ class BookingServiceTest {
 
     @Test
     void should_find_past_bookings_by_booker_id() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
 
         bookingService.getBookingsByBookerId(booker.getId(), StateBooking.PAST, 0, 10);
 
         verify(userRepository, times(1))
-                .findById(anyLong());
+                .existsById(anyLong());
 
         verify(bookingRepository, times(0))
                 .findByBookerId(anyLong(), any());
@@ -397,12 +494,12 @@ class BookingServiceTest {
 
     @Test
     void should_find_rejected_bookings_by_booker_id() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
 
         bookingService.getBookingsByBookerId(booker.getId(), StateBooking.REJECTED, 0, 10);
 
         verify(userRepository, times(1))
-                .findById(anyLong());
+                .existsById(anyLong());
 
         verify(bookingRepository, times(0))
                 .findByBookerId(anyLong(), any());
@@ -422,12 +519,12 @@ class BookingServiceTest {
 
     @Test
     void should_find_waiting_bookings_by_booker_id() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
 
         bookingService.getBookingsByBookerId(booker.getId(), StateBooking.WAITING, 0, 10);
 
         verify(userRepository, times(1))
-                .findById(anyLong());
+                .existsById(anyLong());
 
         verify(bookingRepository, times(0))
                 .findByBookerId(anyLong(), any());
@@ -447,12 +544,12 @@ class BookingServiceTest {
 
     @Test
     void should_find_all_bookings_by_owner_id() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
 
         bookingService.getBookingsByOwnerId(booker.getId(), StateBooking.ALL, 0, 10);
 
         verify(userRepository, times(1))
-                .findById(anyLong());
+                .existsById(anyLong());
 
         verify(bookingRepository, times(1))
                 .findByOwnerId(anyLong(), any());
@@ -472,12 +569,12 @@ class BookingServiceTest {
 
     @Test
     void should_find_current_bookings_by_owner_id() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
 
         bookingService.getBookingsByOwnerId(booker.getId(), StateBooking.CURRENT, 0, 10);
 
         verify(userRepository, times(1))
-                .findById(anyLong());
+                .existsById(anyLong());
 
         verify(bookingRepository, times(0))
                 .findByOwnerId(anyLong(), any());
@@ -497,12 +594,12 @@ class BookingServiceTest {
 
     @Test
     void should_find_past_bookings_by_owner_id() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
 
         bookingService.getBookingsByOwnerId(booker.getId(), StateBooking.PAST, 0, 10);
 
         verify(userRepository, times(1))
-                .findById(anyLong());
+                .existsById(anyLong());
 
         verify(bookingRepository, times(0))
                 .findByOwnerId(anyLong(), any());
@@ -522,12 +619,12 @@ class BookingServiceTest {
 
     @Test
     void should_find_future_bookings_by_owner_id() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
 
         bookingService.getBookingsByOwnerId(booker.getId(), StateBooking.FUTURE, 0, 10);
 
         verify(userRepository, times(1))
-                .findById(anyLong());
+                .existsById(anyLong());
 
         verify(bookingRepository, times(0))
                 .findByOwnerId(anyLong(), any());
@@ -547,12 +644,12 @@ class BookingServiceTest {
 
     @Test
     void should_find_rejected_bookings_by_owner_id() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
 
         bookingService.getBookingsByOwnerId(booker.getId(), StateBooking.REJECTED, 0, 10);
 
         verify(userRepository, times(1))
-                .findById(anyLong());
+                .existsById(anyLong());
 
         verify(bookingRepository, times(0))
                 .findByOwnerId(anyLong(), any());
@@ -572,12 +669,12 @@ class BookingServiceTest {
 
     @Test
     void should_find_waiting_bookings_by_owner_id() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
 
         bookingService.getBookingsByOwnerId(booker.getId(), StateBooking.WAITING, 0, 10);
 
         verify(userRepository, times(1))
-                .findById(anyLong());
+                .existsById(anyLong());
 
         verify(bookingRepository, times(0))
                 .findByOwnerId(anyLong(), any());
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.booking.summary;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.StatusBooking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dto.UserMapper;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Item booking summary")
+class ItemBookingSummaryTest {
+    BookingRepository bookingRepository;
+
+    ItemBookingSummary summary;
+
+    User booker;
+
+    Item item;
+
+    final LocalDateTime current = LocalDateTime.now();
+
+    @BeforeEach
+    void beforeEach() {
+        bookingRepository = mock(BookingRepository.class);
+        summary = new ItemBookingSummary(bookingRepository, new BookingMapper(new ItemMapper(), new UserMapper()));
+
+        booker = new User(2L, "booker", "booker@email");
+
+        item = Item.builder()
+                .id(1L)
+                .owner(new User(1L, "owner", "owner@email"))
+                .name("item 1")
+                .available(true)
+                .build();
+    }
+
+    private Booking booking(long id, LocalDateTime start, StatusBooking status) {
+        return Booking.builder()
+                .id(id)
+                .item(item)
+                .booker(booker)
+                .start(start)
+                .end(start.plusHours(1))
+                .status(status)
+                .build();
+    }
+
+    @Test
+    void should_load_last_and_upcoming_bookings_on_warm_up() {
+        when(bookingRepository.findLastStartedByStatus(anyString(), any()))
+                .thenReturn(List.of(booking(1L, current.minusDays(1), StatusBooking.APPROVED)));
+        when(bookingRepository.findByStatusAndStartAfter(any(), any()))
+                .thenReturn(List.of(booking(3L, current.plusDays(2), StatusBooking.APPROVED),
+                                    booking(2L, current.plusDays(1), StatusBooking.APPROVED)));
+
+        summary.warmUp();
+
+        Assertions.assertEquals(1L, summary.getLastBooking(item.getId(), current).getId());
+        Assertions.assertEquals(2L, summary.getNextBooking(item.getId(), current).getId());
+        Assertions.assertNull(summary.getLastBooking(100L, current));
+        Assertions.assertNull(summary.getNextBooking(100L, current));
+    }
+
+    @Test
+    void should_advance_started_booking_to_last() {
+        summary.update(booking(1L, current.minusDays(1), StatusBooking.APPROVED));
+        summary.update(booking(2L, current.plusHours(1), StatusBooking.APPROVED));
+        summary.update(booking(3L, current.plusHours(3), StatusBooking.APPROVED));
+        summary.update(booking(4L, current.plusHours(2), StatusBooking.WAITING));
+
+        Assertions.assertEquals(1L, summary.getLastBooking(item.getId(), current).getId());
+        Assertions.assertEquals(2L, summary.getNextBooking(item.getId(), current).getId());
+        Assertions.assertEquals(2L, summary.getLastBooking(item.getId(), current.plusHours(2)).getId());
+        Assertions.assertEquals(3L, summary.getNextBooking(item.getId(), current.plusHours(2)).getId());
+
+        summary.advance(current.plusHours(2));
+
+        Assertions.assertEquals(2L, summary.getLastBooking(item.getId(), current).getId());
+        Assertions.assertEquals(3L, summary.getNextBooking(item.getId(), current).getId());
+    }
+
+    @Test
+    void should_reload_last_booking_when_it_is_no_longer_approved() {
+        summary.update(booking(1L, current.minusDays(2), StatusBooking.APPROVED));
+        summary.update(booking(2L, current.minusDays(1), StatusBooking.APPROVED));
+        when(bookingRepository.findLastAndNextByItems(anySet(), anyString(), any()))
+                .thenReturn(List.of(booking(1L, current.minusDays(2), StatusBooking.APPROVED)));
+
+        summary.update(booking(2L, current.minusDays(1), StatusBooking.REJECTED));
+
+        Assertions.assertEquals(1L, summary.getLastBooking(item.getId(), current).getId());
+        verify(bookingRepository, times(1)).findLastAndNextByItems(anySet(), anyString(), any());
+    }
+
+    @Test
+    void should_forget_bookings_of_deleted_items() {
+        summary.update(booking(1L, current.minusDays(1), StatusBooking.APPROVED));
+        summary.update(booking(2L, current.plusHours(1), StatusBooking.APPROVED));
+
+        summary.removeAll(List.of(), List.of(item.getId()));
+        summary.advance(current.plusHours(2));
+
+        Assertions.assertNull(summary.getLastBooking(item.getId(), current.plusHours(2)));
+        Assertions.assertNull(summary.getNextBooking(item.getId(), current));
+    }
+
+    @Test
+    void should_forget_bookings_of_deleted_booker() {
+        summary.update(booking(1L, current.minusDays(2), StatusBooking.APPROVED));
+        summary.update(booking(2L, current.minusDays(1), StatusBooking.APPROVED));
+        summary.update(booking(3L, current.plusHours(1), StatusBooking.APPROVED));
+        when(bookingRepository.findLastAndNextByItems(anySet(), anyString(), any()))
+                .thenReturn(List.of(booking(1L, current.minusDays(2), StatusBooking.APPROVED)));
+
+        summary.removeAll(List.of(booking(2L, current.minusDays(1), StatusBooking.APPROVED),
+                                  booking(3L, current.plusHours(1), StatusBooking.APPROVED)), List.of());
+        summary.advance(current.plusHours(2));
+
+        Assertions.assertEquals(1L, summary.getLastBooking(item.getId(), current.plusHours(2)).getId());
+        Assertions.assertNull(summary.getNextBooking(item.getId(), current));
+    }
+}
@@ -7,15 +7,20 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import javax.validation.ValidationException;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Collections;
@@ -34,13 +39,21 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.practicum.shareit.exeption.EntityNotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoWithBookings;
+import ru.practicum.shareit.item.bulk.ItemImportFormat;
+import ru.practicum.shareit.item.dto.ItemImportReport;
+import ru.practicum.shareit.item.dto.ItemImportResult;
+import ru.practicum.shareit.item.service.ItemImportService;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.validation.ContextShareIt;
 import ru.practicum.shareit.validation.Create;
 import ru.practicum.shareit.validation.Update;
+import ru.practicum.shareit.user.cache.UserExistenceCache;
+import ru.practicum.shareit.user.model.User;
 
 import javax.validation.ConstraintViolation;
 import javax.validation.Validation;
@@ -55,6 +68,12 @@ class   ItemControllerTest {
     @MockBean
     ItemService itemService;
 
+    @MockBean
+    UserExistenceCache userCache;
+
+    @MockBean
+    ItemImportService itemImportService;
+
     @Autowired
     MockMvc mockMvc;
 
@@ -85,7 +104,7 @@ class   ItemControllerTest {
                                                                 .available(itemDto.getAvailable())
                                                                 .lastBooking(null)
                                                                 .nextBooking(null)
-                                                                .comments(Collections.emptySet())
+                                                                .comments(Collections.emptyList())
                                                                 .build();
 
     @Test
@@ -191,6 +210,68 @@ class   ItemControllerTest {
                 .searchItemsForUserWithId(anyLong(), anyString(), anyInt(), anyInt());
     }
 
+    @Test
+    @DisplayName("should suggest item names by prefix")
+    void should_Suggest_Item_Names() throws Exception {
+        when(itemService.suggestItemNames(anyLong(), anyString(), anyInt()))
+                .thenReturn(List.of("Дрель"));
+
+        mockMvc.perform(get("/items/suggest")
+                        .header(ContextShareIt.HEADER_USER_ID, userId)
+                        .param("prefix", "др")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(List.of("Дрель"))));
+
+        verify(itemService, times(1)).suggestItemNames(userId, "др", 10);
+    }
+
+    @Test
+    @DisplayName("should reject suggestion size above top-k")
+    void should_Not_Suggest_More_Than_Top_K() throws Exception {
+        when(itemService.suggestItemNames(anyLong(), anyString(), anyInt()))
+                .thenThrow(new ValidationException("size должен быть не больше 10"));
+
+        mockMvc.perform(get("/items/suggest")
+                        .header(ContextShareIt.HEADER_USER_ID, userId)
+                        .param("prefix", "др")
+                        .param("size", "11")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("should import items from json lines and csv")
+    void should_Import_Items() throws Exception {
+        final ItemImportReport report = new ItemImportReport(1, 0, List.of(ItemImportResult.created(1, 1L)));
+        when(itemImportService.importItems(anyLong(), any(), any()))
+                .thenReturn(report);
+
+        mockMvc.perform(post("/items/bulk")
+                        .header(ContextShareIt.HEADER_USER_ID, userId)
+                        .content("{\"name\":\"name\",\"description\":\"description\",\"available\":true}")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(report)));
+
+        mockMvc.perform(post("/items/bulk")
+                        .header(ContextShareIt.HEADER_USER_ID, userId)
+                        .content("name,description,available\nname,description,true\n")
+                        .contentType("text/csv")
+                        .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isOk());
+
+        verify(itemImportService, times(1)).importItems(anyLong(), eq(ItemImportFormat.JSON_LINES), any());
+        verify(itemImportService, times(1)).importItems(anyLong(), eq(ItemImportFormat.CSV), any());
+    }
+
     @Test
     @DisplayName("should create comment")
     void should_Create_Comment() throws Exception {
@@ -213,6 +294,29 @@ class   ItemControllerTest {
         verify(itemService, times(1)).createComment(anyLong(), anyLong(), any(), any());
     }
 
+    @Test
+    @DisplayName("should get comments page with next cursor")
+    void should_Get_Comments() throws Exception {
+        CommentDto first = new CommentDto(2L, "second", "author", current);
+        CommentDto second = new CommentDto(1L, "first", "author", current.minusDays(1));
+
+        when(itemService.getComments(anyLong(), anyLong(), eq(0), eq(2)))
+                .thenReturn(List.of(first, second));
+
+        mockMvc.perform(get("/items/{itemId}/comments", itemDto.getId())
+                        .header(ContextShareIt.HEADER_USER_ID, userId)
+                        .param("size", "2")
+                        .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", Matchers.is(first.getId()), Long.class))
+                .andExpect(header().string(ContextShareIt.HEADER_NEXT_CURSOR,
+                                           PageCursor.of(second.getCreated(), second.getId()).encode()));
+
+        verify(itemService, times(1)).getComments(anyLong(), anyLong(), eq(0), eq(2));
+    }
+
     @DisplayName("should not validate id for item")
     @Test
     public void should_not_validate_id() {
@@ -297,4 +401,38 @@ class   ItemControllerTest {
         assertEquals("available", validates.iterator().next().getPropertyPath().toString(),
                 "не должно равняться null");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("should reject request without sharer header")
+    void should_reject_request_without_sharer_header() throws Exception {
+        mockMvc.perform(get("/items/search")
+                        .param("text", "name")
+                        .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/items/search")
+                        .header(ContextShareIt.HEADER_USER_ID, "user")
+                        .param("text", "name")
+                        .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isBadRequest());
+
+        verify(itemService, never()).searchItemsForUserWithId(anyLong(), anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("should reject unknown sharer before calling service")
+    void should_reject_unknown_sharer() throws Exception {
+        doThrow(new EntityNotFoundException(userId, User.class)).when(userCache).requireExists(userId);
+
+        mockMvc.perform(get("/items/search")
+                        .header(ContextShareIt.HEADER_USER_ID, userId)
+                        .param("text", "name")
+                        .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isNotFound());
+
+        verify(itemService, never()).searchItemsForUserWithId(anyLong(), anyString(), anyInt(), anyInt());
+    }
+}
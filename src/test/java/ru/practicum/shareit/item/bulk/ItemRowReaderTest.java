@@ -0,0 +1,75 @@
+package ru.practicum.shareit.item.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+@DisplayName("Item row reader")
+class ItemRowReaderTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private List<ItemImportRow> read(ItemImportFormat format, String body) throws IOException {
+        final List<ItemImportRow> rows = new ArrayList<>();
+        try (ItemRowReader reader = new ItemRowReader(format, new StringReader(body), objectMapper)) {
+            ItemImportRow row;
+            while ((row = reader.next()) != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    @Test
+    void should_read_json_lines_and_report_broken_line() throws IOException {
+        final List<ItemImportRow> rows = read(ItemImportFormat.JSON_LINES,
+                "{\"name\":\"Дрель\",\"description\":\"Простая дрель\",\"available\":true}\n" +
+                "\n" +
+                "{\"name\":\"Пила\",\n" +
+                "{\"name\":\"Отвертка\",\"description\":\"Крестовая\",\"available\":false,\"requestId\":7}\n");
+
+        Assertions.assertEquals(3, rows.size());
+        Assertions.assertEquals(new ItemDto(null, "Дрель", "Простая дрель", true, null), rows.get(0).getItem());
+        Assertions.assertEquals(3, rows.get(1).getLine());
+        Assertions.assertNotNull(rows.get(1).getError());
+        Assertions.assertEquals(4, rows.get(2).getLine());
+        Assertions.assertEquals(new ItemDto(null, "Отвертка", "Крестовая", false, 7L), rows.get(2).getItem());
+    }
+
+    @Test
+    void should_read_csv_by_header_with_quoted_values() throws IOException {
+        final List<ItemImportRow> rows = read(ItemImportFormat.CSV,
+                "available,Name,description,requestId\n" +
+                "true,Дрель,\"Мощная, с \"\"кейсом\"\"\",\n" +
+                "TRUE,Пила,Ручная,3\n");
+
+        Assertions.assertEquals(2, rows.size());
+        Assertions.assertEquals(2, rows.get(0).getLine());
+        Assertions.assertEquals(new ItemDto(null, "Дрель", "Мощная, с \"кейсом\"", true, null),
+                                rows.get(0).getItem());
+        Assertions.assertEquals(new ItemDto(null, "Пила", "Ручная", true, 3L), rows.get(1).getItem());
+    }
+
+    @Test
+    void should_report_malformed_csv_rows() throws IOException {
+        final List<ItemImportRow> rows = read(ItemImportFormat.CSV,
+                "name,description,available,requestId\n" +
+                "Дрель,Простая,maybe,\n" +
+                "Дрель,Простая,true,first\n" +
+                "Дрель,\"Простая,true,\n" +
+                "Дрель,,true,\n");
+
+        Assertions.assertEquals(4, rows.size());
+        Assertions.assertEquals("Поле available должно быть true или false: maybe", rows.get(0).getError());
+        Assertions.assertEquals("Поле requestId должно быть числом: first", rows.get(1).getError());
+        Assertions.assertEquals("Незакрытая кавычка в строке CSV", rows.get(2).getError());
+        Assertions.assertNull(rows.get(3).getError());
+        Assertions.assertNull(rows.get(3).getItem().getDescription());
+    }
+}
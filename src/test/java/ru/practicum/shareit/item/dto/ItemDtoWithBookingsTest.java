@@ -12,7 +12,7 @@ import ru.practicum.shareit.booking.dto.BookingDtoShort;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Set;
+import java.util.List;
 
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 
@@ -35,7 +35,7 @@ class ItemDtoWithBookingsTest {
             .description("description")
             .available(true)
             .lastBooking(bookingDto)
-            .comments(Set.of(commentDto))
+            .comments(List.of(commentDto))
             .build();
 
     @Test
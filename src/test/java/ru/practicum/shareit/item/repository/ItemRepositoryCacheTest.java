@@ -0,0 +1,147 @@
+package ru.practicum.shareit.item.repository;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = {"shareit.cache.enabled=true",
+                           "spring.jpa.properties.hibernate.generate_statistics=true"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Item second-level cache")
+class ItemRepositoryCacheTest {
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    CommentRepository commentRepository;
+    @Autowired
+    ItemRequestRepository itemRequestRepository;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    Statistics statistics;
+
+    User user;
+    Item item;
+    ItemRequest request;
+    Comment comment;
+
+    @BeforeEach
+    void beforeEach() {
+        user = userRepository.save(new User(null, "user", "user@email"));
+
+        request = itemRequestRepository.save(ItemRequest.builder()
+                .author(user)
+                .created(LocalDateTime.now())
+                .description("description")
+                .build());
+
+        item = itemRepository.save(Item.builder()
+                .owner(user)
+                .request(request)
+                .name("item")
+                .description("item description")
+                .available(true)
+                .build());
+
+        comment = transactionTemplate.execute(status -> commentRepository.save(Comment.builder()
+                .text("comment")
+                .author(user)
+                .item(itemRepository.getReferenceById(item.getId()))
+                .created(LocalDateTime.now())
+                .build()));
+
+        final SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void afterEach() {
+        commentRepository.deleteAll();
+        itemRepository.deleteAll();
+        itemRequestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @DisplayName("should read user, item, request and comment from cache on the second load")
+    @Test
+    void should_hit_entity_regions() {
+        for (int i = 0; i < 2; i++) {
+            transactionTemplate.executeWithoutResult(status -> {
+                userRepository.findById(user.getId()).orElseThrow();
+                itemRequestRepository.findById(request.getId()).orElseThrow();
+                itemRepository.findById(item.getId()).orElseThrow();
+                commentRepository.findById(comment.getId()).orElseThrow();
+            });
+        }
+
+        assertEquals(1, statistics.getDomainDataRegionStatistics("shareit.user").getHitCount());
+        assertEquals(1, statistics.getDomainDataRegionStatistics("shareit.item-request").getHitCount());
+        assertEquals(1, statistics.getDomainDataRegionStatistics("shareit.item").getHitCount());
+        assertEquals(1, statistics.getDomainDataRegionStatistics("shareit.comment").getHitCount());
+    }
+
+    @DisplayName("should keep the cached item when a comment is added")
+    @Test
+    void should_not_evict_item_on_comment_insert() {
+        transactionTemplate.executeWithoutResult(status -> itemRepository.findById(item.getId()).orElseThrow());
+
+        transactionTemplate.executeWithoutResult(status -> commentRepository.save(Comment.builder()
+                .text("second comment")
+                .author(userRepository.getReferenceById(user.getId()))
+                .item(itemRepository.getReferenceById(item.getId()))
+                .created(LocalDateTime.now())
+                .build()));
+
+        transactionTemplate.executeWithoutResult(status -> itemRepository.findById(item.getId()).orElseThrow());
+
+        assertEquals(1, statistics.getDomainDataRegionStatistics("shareit.item").getHitCount());
+        assertEquals(2, commentRepository.countByItemId(item.getId()));
+    }
+
+    @DisplayName("should serve items by request from query cache until items change")
+    @Test
+    void should_hit_query_cache_for_items_by_request() {
+        itemRepository.findByRequest_Id(request.getId());
+        itemRepository.findByRequest_Id(request.getId());
+
+        assertEquals(1, statistics.getQueryCacheHitCount());
+
+        final Item other = itemRepository.save(Item.builder()
+                .owner(user)
+                .request(request)
+                .name("other")
+                .description("other description")
+                .available(true)
+                .build());
+
+        assertEquals(2, itemRepository.findByRequest_Id(request.getId()).size());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+
+        itemRepository.delete(other);
+    }
+}
@@ -6,9 +6,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-import org.springframework.data.domain.Page;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -17,13 +21,15 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @DisplayName("Item repository")
 class ItemRepositoryTest {
     @Autowired
@@ -34,6 +40,8 @@ class ItemRepositoryTest {
     CommentRepository commentRepository;
     @Autowired
     ItemRequestRepository itemRequestRepository;
+    @Autowired
+    TestEntityManager entityManager;
 
     User user1;
     Item item1;
@@ -78,28 +86,117 @@ class ItemRepositoryTest {
                 .item(item1)
                 .created(LocalDateTime.now())
                 .build());
+    }
+
+    @DisplayName("should find ids of available items by like pattern")
+    @Test
+    void should_find_item_ids_by_pattern() {
+        final Pageable page = PageRequest.of(0, 10);
 
-        item1.setComments(Set.of(comment1));
+        assertEquals(List.of(item1.getId(), item2.getId()),
+                     itemRepository.findIdsByAvailableTrue_And_ContainingText("%descr%", page));
+        assertEquals(List.of(item2.getId()),
+                     itemRepository.findIdsByAvailableTrue_And_ContainingText("%item 2%", page));
+        assertEquals(List.of(),
+                     itemRepository.findIdsByAvailableTrue_And_ContainingText("%\\%%", page));
     }
 
     @DisplayName("should find item by owner")
     @Test
-    void should_find_items_with_text() {
-        final Page<Item> byOwner = itemRepository.findByAvailableTrue_And_ContainingText("ite", Pageable.unpaged());
+    void should_find_item_by_owner() {
+        final List<Long> byOwner = itemRepository.findIdsByOwnerId(user1.getId(), Pageable.unpaged());
+
+        assertEquals(List.of(item1.getId()), byOwner);
+        assertEquals(List.of(item1), itemRepository.findAllById(byOwner));
+    }
+
+    @DisplayName("should load page of owner items and their newest comments in four statements")
+    @Test
+    void should_load_owner_items_page_in_four_statements() {
+        for (int i = 0; i < 20; i++) {
+            final Item item = itemRepository.save(Item.builder()
+                    .owner(user1)
+                    .name("bulk item " + i)
+                    .description("bulk item description")
+                    .available(true)
+                    .build());
+            for (int j = 0; j < 3; j++) {
+                commentRepository.save(Comment.builder()
+                        .text("comment " + j)
+                        .author(user2)
+                        .item(item)
+                        .created(LocalDateTime.now())
+                        .build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        final Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                                                   .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
 
-        assertEquals(2, byOwner.getTotalElements());
-        assertEquals(item1,byOwner.getContent().get(0));
-        assertEquals(item2,byOwner.getContent().get(1));
+        final List<Long> ids = itemRepository.findIdsByOwnerId(user1.getId(),
+                                                               PageRequest.of(1, 5, Sort.by("id")));
+        final List<Item> items = itemRepository.findAllById(ids);
+        final List<Comment> comments = commentRepository.findNewestByItemIdIn(ids, 2);
+        comments.forEach(c -> c.getAuthor().getName());
 
+        assertEquals(5, items.size());
+        assertEquals(5 * 2, comments.size());
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertEquals(5 + 5 * 2 + 1, statistics.getEntityLoadCount());
     }
 
-    @DisplayName("should find item by owner")
+    @DisplayName("should load newest item comments and their authors in one statement")
     @Test
-    void should_find_item_by_owner() {
-        final Page<Item> byOwner = itemRepository.findByOwner_Id(user1.getId(), Pageable.unpaged());
+    void should_load_newest_comments_with_authors_in_one_statement() {
+        for (int i = 0; i < 30; i++) {
+            final User author = userRepository.save(new User(null, "author " + i, "author" + i + "@email"));
+            commentRepository.save(Comment.builder()
+                    .text("comment " + i)
+                    .author(author)
+                    .item(item1)
+                    .created(LocalDateTime.now())
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        final Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                                                   .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        final List<Comment> comments = commentRepository.findByItemIdNewestFirst(item1.getId(),
+                                                                                PageRequest.ofSize(10));
+        final Set<String> authors = comments.stream()
+                                            .map(f -> f.getAuthor().getName())
+                                            .collect(Collectors.toSet());
+
+        assertEquals(10, authors.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
 
-        assertEquals(1, byOwner.getTotalElements());
-        assertEquals(item1,byOwner.getContent().get(0));
+    @DisplayName("should insert items in jdbc batches")
+    @Test
+    void should_insert_items_in_batches() {
+        entityManager.flush();
+        final Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                                                   .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        for (int i = 0; i < 40; i++) {
+            itemRepository.save(Item.builder()
+                    .owner(user1)
+                    .name("bulk item " + i)
+                    .description("bulk item description")
+                    .available(true)
+                    .build());
+        }
+        entityManager.flush();
+
+        assertEquals(40, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() <= 3);
     }
 
     @DisplayName("should find items by request ids")
@@ -120,12 +217,69 @@ class ItemRepositoryTest {
         assertEquals(item2,byRequestId.get(0));
     }
 
-    @DisplayName("should get item by id")
+    @DisplayName("should keep only the newest comments of every item")
+    @Test
+    void should_find_newest_comments_by_item_ids() {
+        final LocalDateTime created = LocalDateTime.of(2024, 1, 1, 12, 0);
+        for (int i = 0; i < 3; i++) {
+            commentRepository.save(Comment.builder()
+                    .text("comment 2." + i)
+                    .author(user1)
+                    .item(item2)
+                    .created(created.plusHours(i))
+                    .build());
+        }
+
+        final List<Comment> newest = commentRepository.findNewestByItemIdIn(List.of(item1.getId(), item2.getId()), 2);
+
+        assertEquals(List.of("comment 1", "comment 2.2", "comment 2.1"),
+                     newest.stream().map(Comment::getText).collect(Collectors.toList()));
+    }
+
+    @DisplayName("should count comments of every item")
     @Test
-    void should_get_items_by_id() {
-        final Optional<Item> item = itemRepository.findById(item1.getId());
+    void should_count_comments_by_item_ids() {
+        for (int i = 0; i < 3; i++) {
+            commentRepository.save(Comment.builder()
+                    .text("comment 2." + i)
+                    .author(user1)
+                    .item(item2)
+                    .created(LocalDateTime.now())
+                    .build());
+        }
+
+        final List<CommentRepository.ItemCommentsCount> counts =
+                commentRepository.countByItemIdIn(List.of(item1.getId(), item2.getId()));
+
+        assertEquals(List.of(1L, 3L), counts.stream()
+                .sorted(Comparator.comparing(CommentRepository.ItemCommentsCount::getItemId))
+                .map(CommentRepository.ItemCommentsCount::getCount)
+                .collect(Collectors.toList()));
+        assertEquals(3, commentRepository.countByItemId(item2.getId()));
+    }
+
+    @DisplayName("should page item comments newest first")
+    @Test
+    void should_page_item_comments_newest_first() {
+        final LocalDateTime created = LocalDateTime.of(2024, 1, 1, 12, 0);
+        for (int i = 0; i < 4; i++) {
+            commentRepository.save(Comment.builder()
+                    .text("comment " + i)
+                    .author(user1)
+                    .item(item2)
+                    .created(created.plusHours(i % 3))
+                    .build());
+        }
+
+        final List<Comment> first = commentRepository.findByItemIdNewestFirst(item2.getId(), PageRequest.of(0, 3));
+
+        assertEquals(List.of("comment 2", "comment 1", "comment 3"),
+                     first.stream().map(Comment::getText).collect(Collectors.toList()));
+
+        final Comment last = first.get(first.size() - 1);
+        final List<Comment> second = commentRepository.seekByItemIdNewestFirst(item2.getId(), last.getCreated(),
+                                                                               last.getId(), PageRequest.ofSize(3));
 
-        assertEquals(item1, item.get());
-        assertEquals(1,item.get().getComments().size());
+        assertEquals(List.of("comment 0"), second.stream().map(Comment::getText).collect(Collectors.toList()));
     }
-}
\ No newline at end of file
+}
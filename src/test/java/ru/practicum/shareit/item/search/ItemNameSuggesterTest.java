@@ -0,0 +1,111 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Item name suggester")
+class ItemNameSuggesterTest {
+    ItemRepository itemRepository;
+
+    ItemNameSuggester suggester;
+
+    final User owner = new User(1L, "owner", "owner@email");
+
+    @BeforeEach
+    void beforeEach() {
+        itemRepository = mock(ItemRepository.class);
+        suggester = new ItemNameSuggester(itemRepository, 3);
+    }
+
+    private Item item(long id, String name, boolean available) {
+        return Item.builder()
+                .id(id)
+                .owner(owner)
+                .name(name)
+                .description("description")
+                .available(available)
+                .build();
+    }
+
+    @Test
+    void should_rebuild_from_repository() {
+        when(itemRepository.findAll(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(item(1L, "Дрель", true),
+                                                   item(2L, "Дрезина", false))));
+
+        suggester.rebuild();
+
+        Assertions.assertEquals(List.of("Дрель"), suggester.suggest("др", 10));
+    }
+
+    @Test
+    void should_complete_inside_and_across_compressed_edges() {
+        suggester.update(item(1L, "Дрель", true));
+        suggester.update(item(2L, "Дрель ударная", true));
+        suggester.update(item(3L, "Дрезина", true));
+
+        Assertions.assertEquals(List.of("Дрезина", "Дрель", "Дрель ударная"), suggester.suggest("д", 10));
+        Assertions.assertEquals(List.of("Дрель", "Дрель ударная"), suggester.suggest("ДРЕЛ", 10));
+        Assertions.assertEquals(List.of("Дрель ударная"), suggester.suggest("дрель  у", 10));
+        Assertions.assertEquals(List.of(), suggester.suggest("дрель б", 10));
+        Assertions.assertEquals(List.of(), suggester.suggest("  ", 10));
+    }
+
+    @Test
+    void should_rank_names_shared_by_more_items_first_and_keep_top_k() {
+        suggester.update(item(1L, "Пила", true));
+        suggester.update(item(2L, "Палатка", true));
+        suggester.update(item(3L, "Палатка", true));
+        suggester.update(item(4L, "Пылесос", true));
+        suggester.update(item(5L, "Паяльник", true));
+
+        Assertions.assertEquals(List.of("Палатка", "Паяльник", "Пила"), suggester.suggest("п", 10));
+        Assertions.assertEquals(List.of("Палатка"), suggester.suggest("п", 1));
+    }
+
+    @Test
+    void should_follow_rename_and_availability_toggle() {
+        suggester.update(item(1L, "Ёлка", true));
+        suggester.update(item(2L, "Елочная гирлянда", true));
+
+        Assertions.assertEquals(List.of("Ёлка", "Елочная гирлянда"), suggester.suggest("ел", 10));
+
+        suggester.update(item(1L, "Ель искусственная", true));
+        suggester.update(item(2L, "Елочная гирлянда", false));
+
+        Assertions.assertEquals(List.of("Ель искусственная"), suggester.suggest("ел", 10));
+        Assertions.assertEquals(List.of(), suggester.suggest("елк", 10));
+
+        suggester.update(item(2L, "Елочная гирлянда", true));
+
+        Assertions.assertEquals(List.of("Елочная гирлянда", "Ель искусственная"), suggester.suggest("ел", 10));
+    }
+
+    @Test
+    void should_forget_removed_items() {
+        suggester.update(item(1L, "Дрель", true));
+        suggester.update(item(2L, "Дрель", true));
+        suggester.update(item(3L, "Дрезина", true));
+
+        suggester.removeAll(List.of(1L, 3L));
+
+        Assertions.assertEquals(List.of("Дрель"), suggester.suggest("др", 10));
+
+        suggester.removeAll(List.of(2L));
+
+        Assertions.assertEquals(List.of(), suggester.suggest("др", 10));
+    }
+}
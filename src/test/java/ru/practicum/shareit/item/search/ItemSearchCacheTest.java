@@ -0,0 +1,98 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DisplayName("Item search cache")
+class ItemSearchCacheTest {
+    ItemSearch itemSearch;
+
+    MeterRegistry meterRegistry;
+
+    ItemSearchCache cache;
+
+    @BeforeEach
+    void beforeEach() {
+        itemSearch = spy(new LikeItemSearch(mock(ItemRepository.class)));
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ItemSearchCache(itemSearch, meterRegistry, 2);
+
+        doReturn(List.of(1L)).when(itemSearch).search(anyString(), anyInt(), anyInt());
+    }
+
+    private double requests(String result) {
+        return meterRegistry.counter("shareit.search.cache.requests", "result", result).count();
+    }
+
+    @Test
+    void should_serve_repeated_query_from_cache() {
+        Assertions.assertEquals(List.of(1L), cache.search("Дрель", 0, 10));
+        Assertions.assertEquals(List.of(1L), cache.search("  дрель ", 0, 10));
+        Assertions.assertEquals(List.of(1L), cache.search("дрель", 10, 10));
+
+        verify(itemSearch, times(2)).search(anyString(), anyInt(), anyInt());
+        Assertions.assertEquals(1, requests("hit"));
+        Assertions.assertEquals(2, requests("miss"));
+        Assertions.assertEquals(2, meterRegistry.get("shareit.search.cache.size").gauge().value());
+    }
+
+    @Test
+    void should_evict_least_recently_used_page() {
+        cache.search("дрель", 0, 10);
+        cache.search("пила", 0, 10);
+        cache.search("дрель", 0, 10);
+        cache.search("палатка", 0, 10);
+        cache.search("дрель", 0, 10);
+        cache.search("пила", 0, 10);
+
+        Assertions.assertEquals(2, requests("hit"));
+        Assertions.assertEquals(4, requests("miss"));
+    }
+
+    @Test
+    void should_evict_only_pages_matching_changed_item() {
+        cache.search("дрель", 0, 10);
+        cache.search("пила", 0, 10);
+
+        cache.evict("Дрель ударная", "Мощная", true);
+        cache.evict("Пила", "Ручная", false);
+
+        cache.search("дрель", 0, 10);
+        cache.search("пила", 0, 10);
+
+        Assertions.assertEquals(1, requests("hit"));
+        Assertions.assertEquals(3, requests("miss"));
+    }
+
+    @Test
+    void should_evict_pages_matching_deleted_items() {
+        cache.search("дрель", 0, 10);
+        cache.search("дрель", 10, 10);
+        cache.search("пила", 0, 10);
+
+        cache.evict(List.of(Item.builder().name("Дрель").description("Ударная").available(true).build(),
+                            Item.builder().name("Пила").description("Ручная").available(false).build()));
+
+        cache.search("дрель", 10, 10);
+        cache.search("пила", 0, 10);
+
+        Assertions.assertEquals(1, requests("hit"));
+        Assertions.assertEquals(4, requests("miss"));
+    }
+}
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Item search index")
+class ItemSearchIndexTest {
+    ItemRepository itemRepository;
+
+    ItemSearchIndex index;
+
+    final User owner = new User(1L, "owner", "owner@email");
+
+    @BeforeEach
+    void beforeEach() {
+        itemRepository = mock(ItemRepository.class);
+        index = new ItemSearchIndex(itemRepository);
+    }
+
+    private Item item(long id, String name, String description, boolean available) {
+        return Item.builder()
+                .id(id)
+                .owner(owner)
+                .name(name)
+                .description(description)
+                .available(available)
+                .build();
+    }
+
+    @Test
+    void should_rebuild_from_repository() {
+        when(itemRepository.findAll(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(item(1L, "Дрель", "Простая дрель", true),
+                                                   item(2L, "Отвертка", "Аккумуляторная отвертка", false))));
+
+        index.rebuild();
+
+        Assertions.assertEquals(List.of(1L), index.search("дрель", 0, 10));
+        Assertions.assertEquals(List.of(), index.search("отвертка", 0, 10));
+    }
+
+    @Test
+    void should_forget_removed_items() {
+        index.update(item(1L, "Дрель", "Простая дрель", true));
+        index.update(item(2L, "Дрель ударная", "Мощная", true));
+
+        index.remove(List.of(1L));
+
+        Assertions.assertEquals(List.of(2L), index.search("дрель", 0, 10));
+    }
+
+    @Test
+    void should_normalize_case_and_yo() {
+        index.update(item(1L, "Ёлочная гирлянда", "Для ЁЛКИ", true));
+
+        Assertions.assertEquals(List.of(1L), index.search("ЕЛОЧНАЯ", 0, 10));
+        Assertions.assertEquals(List.of(1L), index.search("ёлки", 0, 10));
+    }
+
+    @Test
+    void should_match_prefix_and_require_every_token() {
+        index.update(item(1L, "Аккумуляторная дрель", "Дрель-шуруповерт", true));
+        index.update(item(2L, "Дрель", "Сетевая", true));
+
+        Assertions.assertEquals(List.of(1L), index.search("акк", 0, 10));
+        Assertions.assertEquals(List.of(1L), index.search("аккУМУляторная дрел", 0, 10));
+        Assertions.assertEquals(List.of(), index.search("аккумуляторная пила", 0, 10));
+    }
+
+    @Test
+    void should_rank_name_and_exact_hits_higher() {
+        index.update(item(1L, "Набор", "дрель в комплекте", true));
+        index.update(item(2L, "Дрель", "Ударная", true));
+        index.update(item(3L, "Дрели", "Разные", true));
+
+        Assertions.assertEquals(List.of(2L, 3L, 1L), index.search("дрел", 0, 10));
+        Assertions.assertEquals(List.of(2L, 1L), index.search("дрель", 0, 10));
+        Assertions.assertEquals(List.of(3L), index.search("дрел", 1, 1));
+    }
+
+    @Test
+    void should_drop_item_when_it_becomes_unavailable_or_renamed() {
+        final Item item = item(1L, "Дрель", "Ударная", true);
+        index.update(item);
+
+        item.setName("Перфоратор");
+        index.update(item);
+
+        Assertions.assertEquals(List.of(), index.search("дрель", 0, 10));
+        Assertions.assertEquals(List.of(1L), index.search("перфоратор", 0, 10));
+
+        item.setAvailable(false);
+        index.update(item);
+
+        Assertions.assertEquals(List.of(), index.search("перфоратор", 0, 10));
+    }
+}
@@ -0,0 +1,158 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.exeption.EntityNotFoundException;
+import ru.practicum.shareit.item.bulk.ItemImportFormat;
+import ru.practicum.shareit.item.dto.ItemImportReport;
+import ru.practicum.shareit.item.dto.ItemImportResult;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemNameSuggester;
+import ru.practicum.shareit.item.search.ItemSearch;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.cache.UserExistenceCache;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.validation.Validation;
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Item import service")
+class ItemImportServiceTest {
+    ItemRepository itemRepository;
+
+    UserRepository userRepository;
+
+    ItemRequestRepository requestRepository;
+
+    ItemSearchCache searchCache;
+
+    ItemImportService importService;
+
+    final User owner = new User(1L, "owner", "owner@email");
+
+    final AtomicLong ids = new AtomicLong();
+
+    @BeforeEach
+    void beforeEach() {
+        itemRepository = mock(ItemRepository.class);
+        userRepository = mock(UserRepository.class);
+        requestRepository = mock(ItemRequestRepository.class);
+        searchCache = mock(ItemSearchCache.class);
+
+        importService = new ItemImportServiceImpl(itemRepository, userRepository,
+                                                  new UserExistenceCache(userRepository, new SimpleMeterRegistry()),
+                                                  requestRepository,
+                                                  new ItemMapper(), mock(ItemSearch.class),
+                                                  mock(ItemNameSuggester.class), searchCache,
+                                                  Validation.buildDefaultValidatorFactory().getValidator(),
+                                                  new ObjectMapper(), mock(PlatformTransactionManager.class), 2);
+
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(userRepository.getReferenceById(anyLong())).thenReturn(owner);
+        when(itemRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            final List<Item> items = invocation.getArgument(0);
+            items.forEach(f -> f.setId(ids.incrementAndGet()));
+            return items;
+        });
+    }
+
+    @Test
+    void should_save_valid_rows_in_batches_and_report_every_row() {
+        final ItemRequest request = new ItemRequest(5L, owner, "нужна дрель", LocalDateTime.now());
+        when(requestRepository.findAllById(anySet())).thenReturn(List.of(request));
+
+        final ItemImportReport report = importService.importItems(owner.getId(), ItemImportFormat.CSV,
+                new StringReader("name,description,available,requestId\n" +
+                                 "Дрель,Простая,true,5\n" +
+                                 ",Без названия,true,\n" +
+                                 "Пила,Ручная,false,\n" +
+                                 "Молоток,Большой,true,\n" +
+                                 "Отвертка,Крестовая,,\n"));
+
+        Assertions.assertEquals(3, report.getCreated());
+        Assertions.assertEquals(2, report.getFailed());
+        Assertions.assertEquals(List.of(2, 3, 4, 5, 6),
+                                report.getRows().stream().map(ItemImportResult::getLine).collect(Collectors.toList()));
+        Assertions.assertEquals(ItemImportResult.created(2, 1L), report.getRows().get(0));
+        Assertions.assertEquals("name must not be blank", report.getRows().get(1).getError());
+        Assertions.assertEquals(ItemImportResult.created(5, 3L), report.getRows().get(3));
+        Assertions.assertEquals("available must not be null", report.getRows().get(4).getError());
+
+        verify(itemRepository, times(2)).saveAll(anyList());
+        verify(searchCache, times(2)).evictAll();
+    }
+
+    @Test
+    void should_report_rows_of_failed_batch() {
+        when(itemRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("fk"));
+
+        final ItemImportReport report = importService.importItems(owner.getId(), ItemImportFormat.JSON_LINES,
+                new StringReader("{\"name\":\"Дрель\",\"description\":\"Простая\",\"available\":true}\n"));
+
+        Assertions.assertEquals(0, report.getCreated());
+        Assertions.assertEquals(List.of(ItemImportResult.failed(1, "Не удалось сохранить: fk")), report.getRows());
+    }
+
+    @Test
+    void should_report_rows_with_unknown_request() {
+        final ItemRequest request = new ItemRequest(5L, owner, "нужна дрель", LocalDateTime.now());
+        when(requestRepository.findAllById(anySet())).thenReturn(List.of(request));
+
+        final ItemImportReport report = importService.importItems(owner.getId(), ItemImportFormat.CSV,
+                new StringReader("name,description,available,requestId\n" +
+                                 "Дрель,Простая,true,5\n" +
+                                 "Пила,Ручная,true,7\n"));
+
+        Assertions.assertEquals(1, report.getCreated());
+        Assertions.assertEquals(List.of(ItemImportResult.created(2, 1L),
+                                        ItemImportResult.failed(3, "Запрос с id: 7 не найден")),
+                                report.getRows());
+    }
+
+    @Test
+    void should_report_null_json_row_and_import_the_rest() {
+        final ItemImportReport report = importService.importItems(owner.getId(), ItemImportFormat.JSON_LINES,
+                new StringReader("null\n" +
+                                 "{\"name\":\"Дрель\",\"description\":\"Простая\",\"available\":true}\n"));
+
+        Assertions.assertEquals(1, report.getCreated());
+        Assertions.assertEquals(List.of(ItemImportResult.failed(1, "Строка должна содержать JSON-объект вещи"),
+                                        ItemImportResult.created(2, 1L)),
+                                report.getRows());
+    }
+
+    @Test
+    void should_throw_for_unknown_owner_before_reading_body() {
+        when(userRepository.existsById(anyLong())).thenReturn(false);
+
+        Assertions.assertThrows(EntityNotFoundException.class,
+                () -> importService.importItems(100L, ItemImportFormat.JSON_LINES, new StringReader("{}")));
+
+        verify(itemRepository, never()).saveAll(anyList());
+        verify(userRepository, never()).findById(anyLong());
+    }
+}
@@ -22,6 +22,8 @@ import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.exeption.ItemUnavailable;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearch;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
@@ -34,6 +36,7 @@ import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
 
 @Transactional
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
@@ -47,6 +50,7 @@ class ItemServiceImplTest {
     private final ItemMapper itemMapper;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
+    private final ItemSearch itemSearch;
 
     final LocalDateTime current = LocalDateTime.of(2023, 10, 27, 10, 40, 55);
 
@@ -130,6 +134,8 @@ class ItemServiceImplTest {
         Comment commentInBase = query.setParameter("id", 1L).getSingleResult();
 
         assertThat(1L, equalTo(commentInBase.getId()));
+        assertThat(1L, equalTo(em.createQuery("SELECT COUNT(c) FROM Comment c WHERE c.item.id = :itemId", Long.class)
+                                 .setParameter("itemId", 1L).getSingleResult()));
     }
 
     @Test
@@ -141,4 +147,10 @@ class ItemServiceImplTest {
         assertThat(item.getId(), equalTo(itemByIdForUserId.getId()));
         assertThat(1L, equalTo(itemByIdForUserId.getNextBooking().getId()));
     }
-}
\ No newline at end of file
+
+    @Test
+    @Order(value = 6)
+    void should_search_with_index_by_default() {
+        assertThat(itemSearch, instanceOf(ItemSearchIndex.class));
+    }
+}
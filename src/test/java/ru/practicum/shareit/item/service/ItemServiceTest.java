@@ -1,14 +1,17 @@
 package ru.practicum.shareit.item.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.booking.dto.BookingDtoShort;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.StatusBooking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.summary.ItemBookingSummary;
 import ru.practicum.shareit.exeption.EntityNotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentDtoShort;
@@ -20,23 +23,30 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemNameSuggester;
+import ru.practicum.shareit.item.search.ItemSearch;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 
+import ru.practicum.shareit.user.cache.UserExistenceCache;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.validation.ValidationException;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
-import static org.mockito.ArgumentMatchers.anySet;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -58,6 +68,14 @@ class ItemServiceTest {
 
     ItemMapper itemMapper;
 
+    ItemSearch itemSearch;
+
+    ItemNameSuggester nameSuggester;
+
+    ItemSearchCache searchCache;
+
+    ItemBookingSummary bookingSummary;
+
     final LocalDateTime current = LocalDateTime.now();
 
     User user;
@@ -91,9 +109,16 @@ class ItemServiceTest {
         commentRepository = mock(CommentRepository.class);
         requestRepository = mock(ItemRequestRepository.class);
         itemMapper = mock(ItemMapper.class);
+        itemSearch = mock(ItemSearch.class);
+        nameSuggester = mock(ItemNameSuggester.class);
+        searchCache = mock(ItemSearchCache.class);
+        bookingSummary = mock(ItemBookingSummary.class);
 
-        itemService = new ItemServiceImpl(itemRepository, userRepository, bookingRepository,
-                                          commentRepository, requestRepository, itemMapper);
+        itemService = new ItemServiceImpl(itemRepository, userRepository,
+                                          new UserExistenceCache(userRepository, new SimpleMeterRegistry()),
+                                          bookingRepository, bookingSummary,
+                                          commentRepository, requestRepository, itemMapper, itemSearch,
+                                          nameSuggester, searchCache);
 
         user = new User(1L, "user 1", "user1@email");
 
@@ -169,18 +194,20 @@ class ItemServiceTest {
 
     @Test
     void should_throw_exception_if_create_item_and_owner_not_found() {
-        when(userRepository.findById(anyLong())).thenThrow(new EntityNotFoundException(anyLong(), User.class));
+        when(itemRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("fk"));
+
+        when(userRepository.existsById(anyLong())).thenReturn(false);
 
         final EntityNotFoundException exception = Assertions.assertThrows(
                 EntityNotFoundException.class,
                 () -> itemService.createItem(1L, itemDtoWithoutRequest));
 
-        Assertions.assertEquals(User.class.getName() + " с id = 0 не найден.", exception.getMessage());
+        Assertions.assertEquals(User.class.getName() + " с id = 1 не найден.", exception.getMessage());
     }
 
     @Test
     void should_create_item_without_request() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userRepository.getReferenceById(anyLong())).thenReturn(user);
 
         when(itemMapper.toDto(any())).thenReturn(itemDtoWithoutRequest);
 
@@ -189,9 +216,12 @@ class ItemServiceTest {
         Assertions.assertEquals(createItem, itemDtoWithoutRequest);
 
         verify(itemRepository, times(1))
-                .save(any());
+                .saveAndFlush(any());
 
         verify(userRepository, times(1))
+                .getReferenceById(anyLong());
+
+        verify(userRepository, times(0))
                 .findById(anyLong());
 
         verify(itemMapper, times(1))
@@ -201,16 +231,16 @@ class ItemServiceTest {
                 .toDto(any());
 
         verify(requestRepository, times(0))
-                .findById(anyLong());
+                .getReferenceById(anyLong());
     }
 
     @Test
     void should_create_item_by_exist_request() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userRepository.getReferenceById(anyLong())).thenReturn(user);
 
         when(itemMapper.fromDto(any(), any())).thenReturn(item);
 
-        when(requestRepository.findById(anyLong())).thenReturn(Optional.of(request1));
+        when(requestRepository.getReferenceById(anyLong())).thenReturn(request1);
 
         when(itemMapper.toDto(any())).thenReturn(itemDtoByRequest);
 
@@ -218,12 +248,13 @@ class ItemServiceTest {
 
         Assertions.assertEquals(createItem, itemDtoByRequest);
         Assertions.assertEquals(createItem.getRequestId(), request1.getId());
+        Assertions.assertEquals(item.getRequest(), request1);
 
         verify(itemRepository, times(1))
-                .save(any());
+                .saveAndFlush(any());
 
         verify(userRepository, times(1))
-                .findById(anyLong());
+                .getReferenceById(anyLong());
 
         verify(itemMapper, times(1))
                 .fromDto(user, itemDtoByRequest);
@@ -232,39 +263,35 @@ class ItemServiceTest {
                 .toDto(any());
 
         verify(requestRepository, times(1))
+                .getReferenceById(anyLong());
+
+        verify(requestRepository, times(0))
                 .findById(anyLong());
     }
 
     @Test
-    void should_create_item_by_not_exist_request() {
-        Optional<ItemRequest> optEmpty = Optional.empty();
-
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+    void should_throw_exception_if_create_item_and_request_not_found() {
+        when(userRepository.getReferenceById(anyLong())).thenReturn(user);
 
         when(itemMapper.fromDto(any(), any())).thenReturn(item);
 
-        when(requestRepository.findById(anyLong())).thenReturn(optEmpty);
-
-        when(itemMapper.toDto(any())).thenReturn(itemDtoByRequest);
-
-        ItemDto createItem = itemService.createItem(user.getId(), itemDtoByRequest);
+        when(requestRepository.getReferenceById(anyLong())).thenReturn(request1);
 
-        Assertions.assertEquals(createItem, itemDtoByRequest);
+        when(itemRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("fk"));
 
-        verify(itemRepository, times(1))
-                .save(any());
+        when(userRepository.existsById(anyLong())).thenReturn(true);
 
-        verify(userRepository, times(1))
-                .findById(anyLong());
+        when(requestRepository.existsById(anyLong())).thenReturn(false);
 
-        verify(itemMapper, times(1))
-                .fromDto(user, itemDtoByRequest);
+        final EntityNotFoundException exception = Assertions.assertThrows(
+                EntityNotFoundException.class,
+                () -> itemService.createItem(user.getId(), itemDtoByRequest));
 
-        verify(itemMapper, times(1))
-                .toDto(any());
+        Assertions.assertEquals(ItemRequest.class.getName() + " с id = " + itemDtoByRequest.getRequestId() +
+                                " не найден.", exception.getMessage());
 
-        verify(requestRepository, times(1))
-                .findById(anyLong());
+        verify(itemSearch, times(0))
+                .update(any());
     }
 
     @Test
@@ -327,54 +354,123 @@ class ItemServiceTest {
         verify(itemRepository, times(1))
                 .save(any());
 
+        verify(searchCache, times(1))
+                .evict("item 1", "item 1 description", true);
+
+        verify(searchCache, times(1))
+                .evict(item);
+
         verify(itemMapper, times(1))
                 .toDto(any());
     }
 
     @Test
     void should_create_comment() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(guest));
+        when(userRepository.getReferenceById(anyLong())).thenReturn(guest);
 
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(itemRepository.getReferenceById(anyLong())).thenReturn(item);
 
-        when(bookingRepository.existsByBookerIdAndItemIdAndEndBeforeAndStatus(anyLong(), anyLong(), any(), any()))
-                              .thenReturn(true);
+        when(bookingRepository.findBookerNameByBookerIdAndItemIdAndEndBeforeAndStatus(anyLong(), anyLong(), any(),
+                                                                                   any()))
+                              .thenReturn(Optional.of(guest.getName()));
 
         when(commentRepository.save(any())).thenReturn(comment);
 
-        when(itemRepository.save(any())).thenReturn(item);
-
-        when(itemMapper.commentToDto(comment)).thenReturn(commentDtoOut);
+        when(itemMapper.commentToDto(comment, guest.getName())).thenReturn(commentDtoOut);
 
         CommentDto newComment = itemService.createComment(guest.getId(), item.getId(), commentDto, current);
 
         Assertions.assertEquals(newComment, commentDtoOut);
 
         verify(userRepository, times(1))
+                .getReferenceById(anyLong());
+
+        verify(userRepository, never())
                 .findById(anyLong());
 
+        verify(itemMapper, never())
+                .commentToDto(comment);
+
         verify(itemRepository, times(1))
+                .getReferenceById(anyLong());
+
+        verify(itemRepository, times(0))
                 .findById(anyLong());
 
         verify(bookingRepository, times(1))
-                .existsByBookerIdAndItemIdAndEndBeforeAndStatus(anyLong(), anyLong(), any(), any());
+                .findBookerNameByBookerIdAndItemIdAndEndBeforeAndStatus(anyLong(), anyLong(), any(), any());
 
         verify(commentRepository, times(1))
                 .save(any());
 
-        verify(itemRepository, times(1))
+        verify(itemRepository, times(0))
+                .save(any());
+    }
+
+    @Test
+    void should_get_comments_newest_first() {
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+
+        when(commentRepository.findByItemIdNewestFirst(anyLong(), any())).thenReturn(List.of(comment));
+
+        when(itemMapper.commentToDto(comment)).thenReturn(commentDtoOut);
+
+        List<CommentDto> comments = itemService.getComments(guest.getId(), item.getId(), 10, 5);
+
+        Assertions.assertEquals(List.of(commentDtoOut), comments);
+
+        verify(commentRepository, times(1))
+                .findByItemIdNewestFirst(item.getId(), PageRequest.of(2, 5));
+
+        verify(itemRepository, times(0))
+                .existsById(anyLong());
+    }
+
+    @Test
+    void should_throw_exception_if_get_comments_and_item_not_found() {
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+
+        when(commentRepository.seekByItemIdNewestFirst(anyLong(), any(), anyLong(), any())).thenReturn(List.of());
+
+        when(itemRepository.existsById(anyLong())).thenReturn(false);
+
+        final EntityNotFoundException exception = Assertions.assertThrows(
+                EntityNotFoundException.class,
+                () -> itemService.getComments(guest.getId(), 100L, PageCursor.of(current, 1L), 5));
+
+        Assertions.assertEquals(Item.class.getName() + " с id = 100 не найден.", exception.getMessage());
+    }
+
+    @Test
+    void should_throw_exception_if_create_comment_and_item_not_found() {
+        when(bookingRepository.findBookerNameByBookerIdAndItemIdAndEndBeforeAndStatus(anyLong(), anyLong(), any(),
+                                                                                   any()))
+                              .thenReturn(Optional.empty());
+
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+
+        when(itemRepository.existsById(anyLong())).thenReturn(false);
+
+        final EntityNotFoundException exception = Assertions.assertThrows(
+                EntityNotFoundException.class,
+                () -> itemService.createComment(guest.getId(), item.getId(), commentDto, current));
+
+        Assertions.assertEquals(Item.class.getName() + " с id = " + item.getId() + " не найден.",
+                                exception.getMessage());
+
+        verify(commentRepository, times(0))
                 .save(any());
     }
 
     @Test
     void get_items_by_user_id() {
-        final PageImpl<Item> itemPage = new PageImpl<>(Collections.singletonList(item));
+        when(itemRepository.findIdsByOwnerId(anyLong(), any())).thenReturn(List.of(item.getId()));
 
-        when(itemRepository.findByOwner_Id(anyLong(), any())).thenReturn(itemPage);
+        when(itemRepository.findAllById(anyList())).thenReturn(List.of(item));
 
-        when(bookingRepository.findByItemsBooking(anySet(), anyString())).thenReturn(List.of(booking));
+        when(bookingSummary.getLastBooking(anyLong(), any())).thenReturn(bookingDtoOut);
 
-        when(itemMapper.toDtoWithBooking(any(), anyList(), any())).thenReturn(itemDtoWithBooking);
+        when(itemMapper.toDtoWithBooking(any(), any(), anyLong(), any(), any())).thenReturn(itemDtoWithBooking);
 
         List<ItemDtoWithBookings> items = itemService.getItemsByUserId(user.getId(), 0, 10);
 
@@ -383,13 +479,22 @@ class ItemServiceTest {
         Assertions.assertEquals(items.get(0).getLastBooking(), bookingDtoOut);
 
         verify(itemRepository, times(1))
-                .findByOwner_Id(anyLong(), any());
+                .findIdsByOwnerId(anyLong(), any());
 
-        verify(bookingRepository, times(1))
-                .findByItemsBooking(anySet(), anyString());
+        verify(itemRepository, times(1))
+                .findAllById(anyList());
+
+        verify(commentRepository, times(1))
+                .findNewestByItemIdIn(anyList(), anyInt());
+
+        verify(commentRepository, never())
+                .countByItemIdIn(anyList());
+
+        verify(bookingSummary, times(1))
+                .getLastBooking(anyLong(), any());
 
         verify(itemMapper, times(1))
-                .toDtoWithBooking(any(), anyList(), any());
+                .toDtoWithBooking(any(), any(), anyLong(), any(), any());
     }
 
     @Test
@@ -398,20 +503,29 @@ class ItemServiceTest {
 
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
 
-        when(bookingRepository.findByItemsBooking(anySet(), anyString())).thenReturn(List.of(booking));
+        when(bookingSummary.getLastBooking(anyLong(), any())).thenReturn(bookingDtoOut);
 
-        when(itemMapper.toDtoWithBooking(any(), anyList(), any())).thenReturn(itemDtoWithBooking);
+        when(itemMapper.toDtoWithBooking(any(), any(), anyLong(), any(), any())).thenReturn(itemDtoWithBooking);
 
         itemService.getItemByIdForUserId(guest.getId(), item.getId());
 
+        verify(itemRepository, times(1))
+                .findById(anyLong());
+
+        verify(commentRepository, times(1))
+                .findByItemIdNewestFirst(anyLong(), any());
+
+        verify(commentRepository, never())
+                .countByItemId(anyLong());
+
         verify(userRepository, times(1))
                 .existsById(anyLong());
 
-        verify(bookingRepository, times(0))
-                .findByItemsBooking(anySet(), anyString());
+        verify(bookingSummary, times(0))
+                .getLastBooking(anyLong(), any());
 
         verify(itemMapper, times(1))
-                .toDtoWithBooking(any(), anyList(), any());
+                .toDtoWithBooking(any(), any(), anyLong(), any(), any());
     }
 
     @Test
@@ -420,36 +534,114 @@ class ItemServiceTest {
 
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
 
-        when(bookingRepository.findByItemsBooking(anySet(), anyString())).thenReturn(List.of(booking));
+        when(bookingSummary.getLastBooking(anyLong(), any())).thenReturn(bookingDtoOut);
 
-        when(itemMapper.toDtoWithBooking(any(), anyList(), any())).thenReturn(itemDtoWithBooking);
+        when(itemMapper.toDtoWithBooking(any(), any(), anyLong(), any(), any())).thenReturn(itemDtoWithBooking);
 
         itemService.getItemByIdForUserId(user.getId(), item.getId());
 
         verify(userRepository, times(1))
                 .existsById(anyLong());
 
-        verify(bookingRepository, times(1))
-                .findByItemsBooking(anySet(), anyString());
+        verify(bookingSummary, times(1))
+                .getLastBooking(anyLong(), any());
 
         verify(itemMapper, times(1))
-                .toDtoWithBooking(any(), anyList(), any());
+                .toDtoWithBooking(any(), any(), anyLong(), any(), any());
     }
 
     @Test
-    void search_items_for_user_with_id() {
-        final PageImpl<Item> itemPage = new PageImpl<>(Collections.singletonList(item));
+    @DisplayName("should embed only the newest comments page into the item view")
+    void get_item_by_id_with_newest_comments() {
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+
+        final List<Comment> newest = Collections.nCopies(ItemServiceImpl.COMMENTS_PREVIEW_SIZE, comment);
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+
+        when(commentRepository.findByItemIdNewestFirst(item.getId(),
+                PageRequest.ofSize(ItemServiceImpl.COMMENTS_PREVIEW_SIZE))).thenReturn(newest);
+
+        when(commentRepository.countByItemId(item.getId())).thenReturn(25L);
+
+        when(itemMapper.toDtoWithBooking(any(), any(), anyLong(), any(), any())).thenReturn(itemDtoWithBooking);
+
+        itemService.getItemByIdForUserId(guest.getId(), item.getId());
+
+        verify(itemMapper, times(1))
+                .toDtoWithBooking(item, newest, 25L, null, null);
+    }
+
+    @Test
+    @DisplayName("should load the newest comments of a page of items in one call")
+    void get_items_by_user_id_with_newest_comments() {
+        final List<Comment> newest = Collections.nCopies(ItemServiceImpl.COMMENTS_PREVIEW_SIZE, comment);
+        when(itemRepository.findIdsByOwnerId(anyLong(), any())).thenReturn(List.of(item.getId()));
+
+        when(itemRepository.findAllById(anyList())).thenReturn(List.of(item));
+
+        when(commentRepository.findNewestByItemIdIn(List.of(item.getId()), ItemServiceImpl.COMMENTS_PREVIEW_SIZE))
+                .thenReturn(newest);
 
+        final CommentRepository.ItemCommentsCount count = mock(CommentRepository.ItemCommentsCount.class);
+        when(count.getItemId()).thenReturn(item.getId());
+        when(count.getCount()).thenReturn(25L);
+        when(commentRepository.countByItemIdIn(List.of(item.getId()))).thenReturn(List.of(count));
+
+        when(itemMapper.toDtoWithBooking(any(), any(), anyLong(), any(), any())).thenReturn(itemDtoWithBooking);
+
+        itemService.getItemsByUserId(user.getId(), 0, 10);
+
+        verify(itemMapper, times(1))
+                .toDtoWithBooking(item, newest, 25L, null, null);
+    }
+
+    @Test
+    void search_items_for_user_with_id() {
         when(userRepository.existsById(anyLong())).thenReturn(true);
 
-        when(itemRepository.findByAvailableTrue_And_ContainingText(anyString(), any())).thenReturn(itemPage);
+        when(searchCache.search(anyString(), anyInt(), anyInt())).thenReturn(List.of(item.getId()));
+
+        when(itemRepository.findAllById(anyList())).thenReturn(List.of(item));
+
+        when(itemMapper.toDto(any())).thenReturn(itemDtoWithoutRequest);
+
+        List<ItemDto> items = itemService.searchItemsForUserWithId(user.getId(), "text", 0, 10);
 
-        itemService.searchItemsForUserWithId(user.getId(), "text", 0, 10);
+        Assertions.assertEquals(List.of(itemDtoWithoutRequest), items);
 
         verify(userRepository, times(1))
                 .existsById(anyLong());
 
-        verify(itemRepository, times(1))
-                .findByAvailableTrue_And_ContainingText(anyString(), any());
+        verify(searchCache, times(1))
+                .search(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void suggest_item_names_for_user_with_id() {
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+
+        when(nameSuggester.getTopK()).thenReturn(10);
+
+        when(nameSuggester.suggest(anyString(), anyInt())).thenReturn(List.of("Дрель"));
+
+        Assertions.assertEquals(List.of("Дрель"), itemService.suggestItemNames(user.getId(), "др", 10));
+
+        verify(nameSuggester, times(1))
+                .suggest("др", 10);
+    }
+
+    @Test
+    void should_not_suggest_more_than_top_k() {
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+
+        when(nameSuggester.getTopK()).thenReturn(10);
+
+        final ValidationException exception = Assertions.assertThrows(ValidationException.class,
+                () -> itemService.suggestItemNames(user.getId(), "др", 11));
+
+        Assertions.assertEquals("size должен быть не больше 10", exception.getMessage());
+
+        verify(nameSuggester, never())
+                .suggest(anyString(), anyInt());
     }
-}
\ No newline at end of file
+}
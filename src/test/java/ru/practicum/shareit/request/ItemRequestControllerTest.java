@@ -38,6 +38,7 @@ import ru.practicum.shareit.request.dto.ItemRequestDtoOut;
 import ru.practicum.shareit.request.dto.ItemRequestDtoWithItems;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.validation.ContextShareIt;
+import ru.practicum.shareit.user.cache.UserExistenceCache;
 
 import javax.validation.ConstraintViolation;
 import javax.validation.Validation;
@@ -52,6 +53,9 @@ class ItemRequestControllerTest {
     @MockBean
     ItemRequestService itemRequestService;
 
+    @MockBean
+    UserExistenceCache userCache;
+
     @Autowired
     MockMvc mockMvc;
 
@@ -119,4 +119,16 @@ class ItemRequestServiceImplTest {
         assertThat(requestToCheck.getCreated(), equalTo(requestDtoWithItems.getCreated()));
         assertThat(requestDtoWithItems.getItems().size(), equalTo(0));
     }
-}
\ No newline at end of file
+
+    @Test
+    @Order(value = 5)
+    @DisplayName("should throw exception not found user on create request")
+    @Transactional(Transactional.TxType.NEVER)
+    void should_throw_exception_create_item_request_for_not_exist_user() {
+        final EntityNotFoundException exception = Assertions.assertThrows(
+                EntityNotFoundException.class,
+                () -> service.createItemRequest(100L, requestIn, current));
+
+        Assertions.assertEquals(User.class.getName() + " с id = 100 не найден.", exception.getMessage());
+    }
+}
@@ -1,11 +1,14 @@
 package ru.practicum.shareit.request.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageImpl;
+import ru.practicum.shareit.exeption.EntityNotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
@@ -16,6 +19,7 @@ import ru.practicum.shareit.request.dto.ItemRequestDtoWithItems;
 import ru.practicum.shareit.request.dto.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.cache.UserExistenceCache;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
@@ -74,6 +78,7 @@ class ItemRequestServiceTest {
         itemMapper = mock(ItemMapper.class);
 
         requestService = new ItemRequestServiceImpl(requestRepository, userRepository,
+                                                    new UserExistenceCache(userRepository, new SimpleMeterRegistry()),
                                                     itemRepository, requestMapper, itemMapper);
 
         user = new User(1L, "user 1", "user1@email");
@@ -117,11 +122,11 @@ class ItemRequestServiceTest {
 
     @Test
     void should_create_item_request() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userRepository.getReferenceById(anyLong())).thenReturn(user);
 
         when(requestMapper.fromDto(any(), any(), any())).thenReturn(itemRequest);
 
-        when(requestRepository.save(any())).thenReturn(itemRequest);
+        when(requestRepository.saveAndFlush(any())).thenReturn(itemRequest);
 
         when(requestMapper.toDto(any())).thenReturn(itemRequestDtoOut);
 
@@ -130,18 +135,37 @@ class ItemRequestServiceTest {
         Assertions.assertEquals(createRequest, itemRequestDtoOut);
 
         verify(userRepository, times(1))
+                .getReferenceById(anyLong());
+
+        verify(userRepository, times(0))
                 .findById(anyLong());
 
         verify(requestMapper, times(1))
                 .fromDto(any(), any(), any());
 
         verify(requestRepository, times(1))
-                .save(any());
+                .saveAndFlush(any());
 
         verify(requestMapper, times(1))
                 .toDto(any());
     }
 
+    @Test
+    void should_throw_exception_if_create_item_request_and_user_not_found() {
+        when(requestMapper.fromDto(any(), any(), any())).thenReturn(itemRequest);
+
+        when(requestRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("fk"));
+
+        when(userRepository.existsById(anyLong())).thenReturn(false);
+
+        final EntityNotFoundException exception = Assertions.assertThrows(
+                EntityNotFoundException.class,
+                () -> requestService.createItemRequest(user.getId(), itemRequestDtoIn, current));
+
+        Assertions.assertEquals(User.class.getName() + " с id = " + user.getId() + " не найден.",
+                                exception.getMessage());
+    }
+
     @Test
     void get_requests_by_user_id_without_items() {
         when(userRepository.existsById(anyLong())).thenReturn(true);
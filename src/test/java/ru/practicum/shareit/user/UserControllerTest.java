@@ -10,6 +10,7 @@ import static org.mockito.Mockito.when;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -28,14 +29,17 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.validation.ContextShareIt;
 import ru.practicum.shareit.validation.Create;
+import ru.practicum.shareit.user.cache.UserExistenceCache;
 
 import javax.validation.ConstraintViolation;
 import javax.validation.Validation;
@@ -49,6 +53,9 @@ class UserControllerTest {
     @MockBean
     UserService userService;
 
+    @MockBean
+    UserExistenceCache userCache;
+
     @Autowired
     MockMvc mockMvc;
 
@@ -124,7 +131,8 @@ class UserControllerTest {
     @DisplayName("should return empty users")
     void should_return_all_users() throws Exception {
         final PageRequest pageable = PageRequest.of(ContextShareIt.from > 0 ?
-                                      ContextShareIt.from / ContextShareIt.size : 0, ContextShareIt.size);
+                                      ContextShareIt.from / ContextShareIt.size : 0, ContextShareIt.size,
+                                      Sort.by("id"));
 
         List<UserDto> expectedResult = Collections.emptyList();
         when(userService.getAllUsers(pageable))
@@ -140,6 +148,27 @@ class UserControllerTest {
         verify(userService, times(1)).getAllUsers(pageable);
     }
 
+    @Test
+    @DisplayName("should page users by id and return cursor of the highest id")
+    void should_return_users_page_with_cursor() throws Exception {
+        final PageRequest pageable = PageRequest.of(1, 2, Sort.by("id"));
+        final List<UserDto> page = List.of(new UserDto(3L, "user 3", "user3@email"),
+                                           new UserDto(7L, "user 7", "user7@email"));
+
+        when(userService.getAllUsers(pageable))
+                .thenReturn(page);
+
+        mockMvc.perform(get("/users")
+                            .param("from", "2")
+                            .param("size", "2")
+                        )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[1].id", Matchers.is(7L), Long.class))
+                .andExpect(header().string(ContextShareIt.HEADER_NEXT_CURSOR, PageCursor.of(7L).encode()));
+
+        verify(userService, times(1)).getAllUsers(pageable);
+    }
+
     @Test
     @DisplayName("should find user by id")
     void should_get_user_by_id() throws Exception {
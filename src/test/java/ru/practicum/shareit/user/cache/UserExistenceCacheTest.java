@@ -0,0 +1,117 @@
+package ru.practicum.shareit.user.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exeption.EntityNotFoundException;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("User existence cache")
+class UserExistenceCacheTest {
+    UserRepository userRepository;
+
+    MeterRegistry meterRegistry;
+
+    UserExistenceCache cache;
+
+    @BeforeEach
+    void beforeEach() {
+        userRepository = mock(UserRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new UserExistenceCache(userRepository, meterRegistry);
+    }
+
+    private double savedQueries() {
+        return meterRegistry.counter("shareit.user.cache.saved.queries").count();
+    }
+
+    @Test
+    void should_not_query_database_for_preloaded_users() {
+        when(userRepository.findAllIds()).thenReturn(List.of(1L, 5L));
+
+        cache.warmUp();
+        cache.requireExists(1L);
+        cache.requireExists(5L);
+
+        verify(userRepository, never()).existsById(anyLong());
+        Assertions.assertEquals(2, savedQueries());
+    }
+
+    @Test
+    void should_remember_user_confirmed_by_database() {
+        when(userRepository.existsById(3L)).thenReturn(true);
+
+        cache.requireExists(3L);
+        cache.requireExists(3L);
+
+        verify(userRepository, times(1)).existsById(3L);
+        Assertions.assertEquals(1, savedQueries());
+    }
+
+    @Test
+    void should_throw_for_unknown_and_deleted_users() {
+        cache.add(2L);
+        cache.remove(2L);
+
+        final EntityNotFoundException exception = Assertions.assertThrows(
+                EntityNotFoundException.class,
+                () -> cache.requireExists(2L));
+
+        Assertions.assertEquals(User.class.getName() + " с id = 2 не найден.", exception.getMessage());
+        verify(userRepository, times(1)).existsById(2L);
+    }
+
+    @Test
+    void should_not_remember_user_checked_while_delete_is_in_flight() {
+        when(userRepository.existsById(2L)).thenReturn(true);
+        cache.add(2L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.remove(2L);
+
+            CompletableFuture.runAsync(() -> cache.requireExists(2L)).join();
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(f -> f.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        when(userRepository.existsById(2L)).thenReturn(false);
+
+        Assertions.assertThrows(EntityNotFoundException.class, () -> cache.requireExists(2L));
+        verify(userRepository, times(2)).existsById(2L);
+    }
+
+    @Test
+    void should_not_remember_user_checked_before_delete_finished() {
+        when(userRepository.existsById(2L)).thenAnswer(invocation -> {
+            cache.remove(2L);
+            return true;
+        });
+
+        cache.requireExists(2L);
+
+        when(userRepository.existsById(2L)).thenReturn(false);
+
+        Assertions.assertThrows(EntityNotFoundException.class, () -> cache.requireExists(2L));
+        verify(userRepository, times(2)).existsById(2L);
+    }
+}
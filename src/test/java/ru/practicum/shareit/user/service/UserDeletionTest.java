@@ -0,0 +1,151 @@
+package ru.practicum.shareit.user.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.availability.ItemLocks;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.exeption.NoAccessBooking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.booking.summary.ItemBookingSummary;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemNameSuggester;
+import ru.practicum.shareit.item.search.ItemSearch;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.user.cache.UserExistenceCache;
+import ru.practicum.shareit.user.dto.UserMapper;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@DataJpaTest
+@Import({UserServiceImpl.class, BookingServiceImpl.class, ItemAvailabilityIndex.class, ItemBookingSummary.class,
+         ItemLocks.class, BookingMapper.class, ItemMapper.class, UserMapper.class, UserExistenceCache.class,
+         ItemSearchIndex.class, ItemNameSuggester.class, ItemSearchCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("User deletion and in-memory read models")
+class UserDeletionTest {
+    @TestConfiguration
+    static class MetricsConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    ItemBookingSummary bookingSummary;
+    @Autowired
+    UserServiceImpl userService;
+    @Autowired
+    BookingServiceImpl bookingService;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ItemSearch itemSearch;
+    @Autowired
+    ItemNameSuggester nameSuggester;
+    @Autowired
+    ItemSearchCache searchCache;
+
+    final LocalDateTime current = LocalDateTime.now();
+
+    User owner;
+
+    User booker;
+
+    User other;
+
+    Item item;
+
+    @BeforeEach
+    void beforeEach() {
+        owner = userRepository.save(new User(null, "owner", "owner@email"));
+        booker = userRepository.save(new User(null, "booker", "booker@email"));
+        other = userRepository.save(new User(null, "other", "other@email"));
+
+        item = itemRepository.save(Item.builder()
+                .owner(owner)
+                .name("item")
+                .description("item description")
+                .available(true)
+                .build());
+    }
+
+    @AfterEach
+    void afterEach() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private BookingDto slot() {
+        return BookingDto.builder()
+                .itemId(item.getId())
+                .start(current.plusDays(1))
+                .end(current.plusDays(2))
+                .build();
+    }
+
+    @DisplayName("should free the slots of a deleted booker")
+    @Test
+    void should_book_slot_freed_by_deleted_booker() {
+        bookingService.createBooking(booker.getId(), slot(), current);
+        Assertions.assertThrows(NoAccessBooking.class,
+                                () -> bookingService.createBooking(other.getId(), slot(), current));
+
+        userService.deleteUserById(booker.getId());
+
+        Assertions.assertEquals(0, bookingRepository.count());
+        Assertions.assertNotNull(bookingService.createBooking(other.getId(), slot(), current).getId());
+    }
+
+    @DisplayName("should drop the next booking of a deleted booker from the summary")
+    @Test
+    void should_drop_next_booking_of_deleted_booker() {
+        final Long bookingId = bookingService.createBooking(booker.getId(), slot(), current).getId();
+        bookingService.approvedBooking(owner.getId(), bookingId, true);
+        Assertions.assertEquals(bookingId, bookingSummary.getNextBooking(item.getId(), current).getId());
+
+        userService.deleteUserById(booker.getId());
+
+        Assertions.assertNull(bookingSummary.getNextBooking(item.getId(), current));
+    }
+
+    @DisplayName("should drop items of a deleted owner from search")
+    @Test
+    void should_drop_items_of_deleted_owner_from_search() {
+        itemSearch.update(item);
+        nameSuggester.update(item);
+        Assertions.assertEquals(List.of(item.getId()), searchCache.search("item", 0, 10));
+        Assertions.assertEquals(List.of("item"), nameSuggester.suggest("it", 10));
+
+        userService.deleteUserById(owner.getId());
+
+        Assertions.assertEquals(List.of(), searchCache.search("item", 0, 10));
+        Assertions.assertEquals(List.of(), nameSuggester.suggest("it", 10));
+    }
+}
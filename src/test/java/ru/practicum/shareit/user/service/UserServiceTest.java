@@ -8,7 +8,17 @@ import org.junit.jupiter.api.Test;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.summary.ItemBookingSummary;
 import ru.practicum.shareit.exeption.EntityNotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemNameSuggester;
+import ru.practicum.shareit.item.search.ItemSearch;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.user.cache.UserExistenceCache;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -31,6 +41,14 @@ class UserServiceTest {
     UserServiceImpl userService;
     UserRepository userRepository;
     UserMapper userMapper;
+    UserExistenceCache userCache;
+    BookingRepository bookingRepository;
+    ItemRepository itemRepository;
+    ItemAvailabilityIndex availabilityIndex;
+    ItemBookingSummary bookingSummary;
+    ItemSearch itemSearch;
+    ItemNameSuggester nameSuggester;
+    ItemSearchCache searchCache;
 
     User user;
 
@@ -38,7 +56,17 @@ class UserServiceTest {
     void beforeEach() {
         userRepository = mock(UserRepository.class);
         userMapper = mock(UserMapper.class);
-        userService = new UserServiceImpl(userRepository, userMapper);
+        userCache = mock(UserExistenceCache.class);
+        bookingRepository = mock(BookingRepository.class);
+        itemRepository = mock(ItemRepository.class);
+        availabilityIndex = mock(ItemAvailabilityIndex.class);
+        bookingSummary = mock(ItemBookingSummary.class);
+        itemSearch = mock(ItemSearch.class);
+        nameSuggester = mock(ItemNameSuggester.class);
+        searchCache = mock(ItemSearchCache.class);
+        userService = new UserServiceImpl(userRepository, userMapper, userCache, bookingRepository, itemRepository,
+                                          availabilityIndex, bookingSummary, itemSearch, nameSuggester,
+                                          searchCache);
 
         user = new User(1L, "user 1", "user1@email");
     }
@@ -106,8 +134,14 @@ class UserServiceTest {
     @Test
     @DisplayName("should delete user by id")
     void should_delete_user_by_id() {
+        final List<Booking> bookings = List.of(Booking.builder().id(1L).build());
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.of(user));
+        when(bookingRepository.findByBookerIdOrOwnerId(user.getId()))
+                .thenReturn(bookings);
+        final List<Item> items = List.of(Item.builder().id(2L).build());
+        when(itemRepository.findByOwner_Id(user.getId()))
+                .thenReturn(items);
 
         userService.deleteUserById(user.getId());
 
@@ -117,6 +151,27 @@ class UserServiceTest {
 
         verify(userRepository, times(1))
                 .delete(user);
+
+        verify(userCache, times(1))
+                .remove(user.getId());
+
+        verify(availabilityIndex, times(1))
+                .removeAll(bookings);
+
+        verify(availabilityIndex, times(1))
+                .removeItems(List.of(2L));
+
+        verify(bookingSummary, times(1))
+                .removeAll(bookings, List.of(2L));
+
+        verify(itemSearch, times(1))
+                .remove(List.of(2L));
+
+        verify(nameSuggester, times(1))
+                .removeAll(List.of(2L));
+
+        verify(searchCache, times(1))
+                .evict(items);
     }
 
     @Test
@@ -142,6 +197,9 @@ class UserServiceTest {
         verify(userRepository, times(1))
                 .save(user);
 
+        verify(userCache, times(1))
+                .add(user.getId());
+
         verify(userMapper, times(1))
                 .fromDto(any());
 